@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.5.6"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "vn.uit"
@@ -25,6 +26,7 @@ repositories {
 }
 
 dependencies {
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-mail")
 	implementation("org.springframework.boot:spring-boot-starter-security")
@@ -44,12 +46,29 @@ dependencies {
 	compileOnly("org.projectlombok:lombok")
 	developmentOnly("org.springframework.boot:spring-boot-devtools")
 	runtimeOnly("org.postgresql:postgresql")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	annotationProcessor("org.projectlombok:lombok")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("org.springframework.security:spring-security-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+	jmh("org.openjdk.jmh:jmh-core:1.37")
+	jmhAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// ./gradlew jmh [-Pjmh.includes=TokenHash] [-Pjmh.revision=<name>]
+// Benchmarks need no database, SMTP or network, so they also run with --offline once dependencies are cached.
+// Results go to build/results/jmh/<revision>.json (git short hash by default) for comparing commits.
+val jmhRevision = providers.gradleProperty("jmh.revision")
+	.orElse(providers.exec { commandLine("git", "rev-parse", "--short", "HEAD") }
+		.standardOutput.asText.map { it.trim() })
+
+jmh {
+	profilers.set(listOf("gc"))
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file(jmhRevision.map { "results/jmh/$it.json" }))
+	includes.set(providers.gradleProperty("jmh.includes").map { listOf(it) }.orElse(listOf()))
+}
@@ -0,0 +1,114 @@
+package vn.uit.lms.benchmark;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import vn.uit.lms.config.SecurityJwtConfiguration;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.dto.response.ResLoginDTO;
+import vn.uit.lms.shared.util.AccessTokenClaims;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token size and cost, legacy (v1) against compact (v2) claims.
+ * <p>
+ * The token and {@code Authorization} header size of each layout are reported as secondary results
+ * of {@code decodeAndAuthenticate}. Decoding covers what every authenticated request pays: signature
+ * check, claim parsing and authority mapping.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessTokenBenchmark {
+
+    @Param({"1", "2"})
+    public int claimsVersion;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private JwtAuthenticationConverter converter;
+    private ResLoginDTO.UserInfo user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecretKey key = new SecretKeySpec(
+                "benchmark-secret-benchmark-secret-benchmark-secret-0123456789".getBytes(StandardCharsets.UTF_8),
+                MacAlgorithm.HS256.getName());
+        encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        converter = new SecurityJwtConfiguration().jwtAuthenticationConverter();
+        user = ResLoginDTO.UserInfo.builder()
+                .id(1_234_567L)
+                .username("nguyenvana2024")
+                .email("nguyen.van.a.2024@student.uit.edu.vn")
+                .role(Role.STUDENT)
+                .build();
+
+        token = encode();
+    }
+
+    @Benchmark
+    public String encode() {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(1, ChronoUnit.DAYS);
+        JwtClaimsSet claims = claimsVersion >= AccessTokenClaims.CURRENT_VERSION
+                ? AccessTokenClaims.compact(user, 89_012L, now, expiresAt)
+                : AccessTokenClaims.legacy(user, now, expiresAt);
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken decodeAndAuthenticate(Sizes sizes) {
+        return converter.convert(decoder.decode(token));
+    }
+
+    /**
+     * Size of the token under test, written to the results next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        public int tokenBytes;
+        public int headerBytes;
+
+        @Setup(Level.Iteration)
+        public void measure(AccessTokenBenchmark benchmark) {
+            tokenBytes = benchmark.token.getBytes(StandardCharsets.US_ASCII).length;
+            headerBytes = ("Authorization: Bearer " + benchmark.token).getBytes(StandardCharsets.US_ASCII).length;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package vn.uit.lms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vn.uit.lms.core.entity.Account;
+import vn.uit.lms.core.entity.Student;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.Gender;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.dto.response.ResLoginDTO;
+import vn.uit.lms.shared.dto.response.account.AccountProfileResponse;
+import vn.uit.lms.shared.dto.response.account.AccountResponse;
+import vn.uit.lms.shared.mapper.AccountMapper;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversions on the login, profile and account list paths. These are plain builder
+ * copies; the interesting number is {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountMapperBenchmark {
+
+    private Account account;
+    private Student student;
+    private AccountProfileResponse.Profile profile;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Instant now = Instant.parse("2025-03-01T08:15:30Z");
+        account = Account.builder()
+                .username("nguyenvana2024")
+                .email("nguyen.van.a.2024@student.uit.edu.vn")
+                .role(Role.STUDENT)
+                .status(AccountStatus.ACTIVE)
+                .avatarUrl("https://res.cloudinary.com/lms/image/upload/v1/avatars/1234567.webp")
+                .lastLoginAt(now)
+                .langKey("vi")
+                .build();
+        account.setId(1_234_567L);
+        account.setCreatedAt(now);
+
+        student = Student.builder()
+                .account(account)
+                .studentCode("STU2512345678")
+                .build();
+        student.setId(89_012L);
+        student.setFullName("Nguyễn Văn A");
+        student.setBirthDate(LocalDate.of(2004, 5, 17));
+        student.setGender(Gender.MALE);
+
+        profile = AccountProfileResponse.Profile.builder()
+                .studentCode(student.getStudentCode())
+                .fullName(student.getFullName())
+                .birthDate(student.getBirthDate())
+                .gender(student.getGender())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public ResLoginDTO studentToResLoginDTO() {
+        return AccountMapper.studentToResLoginDTO(student);
+    }
+
+    @Benchmark
+    public AccountProfileResponse toProfileResponse() {
+        return AccountMapper.toProfileResponse(account, profile);
+    }
+
+    @Benchmark
+    public AccountResponse toAccountResponse() {
+        return AccountMapper.toAccountResponse(account);
+    }
+}
@@ -0,0 +1,93 @@
+package vn.uit.lms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import vn.uit.lms.service.helper.CodeGenerator;
+import vn.uit.lms.service.helper.StudentCodeGenerator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Student code generation: the lock-free hand-out within a block, the obfuscation and the Luhn
+ * digit, plus the synchronized refill every {@code blockSize} codes.
+ * <p>
+ * The {@code code_blocks} upsert is replaced by an in-memory counter, so the numbers exclude the
+ * database round trip a refill costs in production (divide it by {@code blockSize} to add it back).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeGeneratorBenchmark {
+
+    private static final long SERIAL_SPACE = 10_000_000L;
+
+    @Param({"1", "100"})
+    public int blockSize;
+
+    private CodeGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new StudentCodeGenerator(new InMemoryCodeBlocks(), new NoOpTransactionManager(), blockSize);
+    }
+
+    @Benchmark
+    public String generate() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateContended() {
+        return generator.generate();
+    }
+
+    /**
+     * Answers the block allocation query; wraps around instead of exhausting the serial space.
+     */
+    private static final class InMemoryCodeBlocks extends JdbcTemplate {
+        private final AtomicLong next = new AtomicLong();
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            long size = ((Number) args[2]).longValue();
+            return requiredType.cast(Math.floorMod(next.getAndAdd(size), SERIAL_SPACE - size));
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
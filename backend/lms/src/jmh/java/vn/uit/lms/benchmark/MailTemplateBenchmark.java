@@ -0,0 +1,84 @@
+package vn.uit.lms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import vn.uit.lms.config.MessageConfig;
+import vn.uit.lms.core.entity.Account;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.Role;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the real mail templates and messages, with the template cache on as in production.
+ * The context carries every variable {@code MailService} sets, so any template can be selected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    @Param({"activationEmail", "passwordResetEmail", "accountSuspendedEmail"})
+    public String template;
+
+    @Param({"vi", "en"})
+    public String langKey;
+
+    private SpringTemplateEngine templateEngine;
+    private Context context;
+    private String templateName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setTemplateEngineMessageSource(new MessageConfig().messageSource());
+
+        Account account = Account.builder()
+                .username("nguyenvana2024")
+                .email("nguyen.van.a.2024@student.uit.edu.vn")
+                .role(Role.STUDENT)
+                .status(AccountStatus.ACTIVE)
+                .langKey(langKey)
+                .build();
+
+        context = new Context(Locale.forLanguageTag(langKey));
+        context.setVariable("user", account);
+        context.setVariable("baseUrl", "https://lms.example.edu.vn");
+        context.setVariable("apiVersion", "api/v1");
+        context.setVariable("token", "q3Xk9v2Lw8PZr0sYtN4mB7cD1eF6gH5jK2lM9nO0pQ");
+        context.setVariable("reason", "Vi phạm quy chế thi");
+        templateName = "mail/" + template;
+    }
+
+    @Benchmark
+    public String render() {
+        return templateEngine.process(templateName, context);
+    }
+}
@@ -0,0 +1,141 @@
+package vn.uit.lms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.Gender;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.dto.ApiResponse;
+import vn.uit.lms.shared.dto.response.account.AccountProfileResponse;
+import vn.uit.lms.shared.util.JsonViewUtils;
+import vn.uit.lms.shared.view.Views;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Role-filtered profile responses, from DTO to response bytes.
+ * <p>
+ * {@code legacyRoundTrip} is the previous {@code JsonViewUtils}: serialize with a private mapper,
+ * parse the string back into a map, then let the application mapper write the envelope.
+ * {@code singlePass} is the current view-bound writer. The size of both bodies is reported as a
+ * secondary result of each benchmark so the outputs can be compared.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileViewBenchmark {
+
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Param({"STUDENT", "TEACHER"})
+    public Role role;
+
+    private ObjectMapper applicationMapper;
+    private JsonViewUtils jsonViewUtils;
+    private AccountProfileResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Same defaults Spring Boot applies to the MVC message converter's mapper
+        applicationMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonViewUtils = new JsonViewUtils(applicationMapper);
+
+        Instant now = Instant.parse("2025-03-01T08:15:30Z");
+        response = AccountProfileResponse.builder()
+                .accountId(1_234_567L)
+                .username("nguyenvana2024")
+                .email("nguyen.van.a.2024@student.uit.edu.vn")
+                .lastLoginAt(now)
+                .role(role)
+                .status(AccountStatus.ACTIVE)
+                .avatarUrl("https://res.cloudinary.com/lms/image/upload/v1/avatars/1234567.webp")
+                .profile(AccountProfileResponse.Profile.builder()
+                        .studentCode(role == Role.STUDENT ? "SV2025000123" : null)
+                        .teacherCode(role == Role.TEACHER ? "GV2025000045" : null)
+                        .fullName("Nguyễn Văn A")
+                        .phone("0901234567")
+                        .birthDate(LocalDate.of(2004, 5, 17))
+                        .bio("Sinh viên năm 2, Khoa Khoa học Máy tính")
+                        .gender(Gender.MALE)
+                        .specialty(role == Role.TEACHER ? "Distributed systems" : null)
+                        .degree(role == Role.TEACHER ? "PhD" : null)
+                        .approved(role == Role.TEACHER ? Boolean.TRUE : null)
+                        .approvedBy(role == Role.TEACHER ? 1L : null)
+                        .approvedAt(role == Role.TEACHER ? now : null)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] legacyRoundTrip(Sizes sizes) throws Exception {
+        return legacyBody();
+    }
+
+    @Benchmark
+    public byte[] singlePass(Sizes sizes) throws Exception {
+        return singlePassBody();
+    }
+
+    private byte[] legacyBody() throws Exception {
+        Class<?> view = switch (role) {
+            case STUDENT -> Views.Student.class;
+            case TEACHER -> Views.Teacher.class;
+            case ADMIN -> Views.Admin.class;
+        };
+        String json = LEGACY_MAPPER.writerWithView(view).writeValueAsString(response);
+        ApiResponse<Object> body = new ApiResponse<>();
+        body.setSuccess(true);
+        body.setStatus(200);
+        body.setCode("SUCCESS");
+        body.setMessage("Request processed successfully");
+        body.setData(LEGACY_MAPPER.readValue(json, Object.class));
+        body.setTimestamp(Instant.now());
+        return applicationMapper.writeValueAsBytes(body);
+    }
+
+    private byte[] singlePassBody() throws Exception {
+        return applicationMapper.writeValueAsBytes(jsonViewUtils.formatAccountProfileResponse(response));
+    }
+
+    /**
+     * Body sizes for the role under test, written to the results next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        public int legacyBytes;
+        public int singlePassBytes;
+
+        @Setup(Level.Iteration)
+        public void measure(ProfileViewBenchmark benchmark) throws Exception {
+            legacyBytes = benchmark.legacyBody().length;
+            singlePassBytes = benchmark.singlePassBody().length;
+        }
+    }
+}
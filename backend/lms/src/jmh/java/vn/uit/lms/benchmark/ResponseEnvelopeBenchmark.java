@@ -0,0 +1,133 @@
+package vn.uit.lms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.context.request.WebRequest;
+import vn.uit.lms.controller.auth.AuthController;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.dto.ApiResponse;
+import vn.uit.lms.shared.dto.response.MeResponse;
+import vn.uit.lms.shared.util.ResponseEnvelopes;
+import vn.uit.lms.shared.util.annotation.ApiMessage;
+
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Success envelope around a small body, written to a discarding stream.
+ * <p>
+ * {@code legacyEnvelope} is the previous {@code FormatRestResponse}: a fresh {@link ApiResponse}
+ * and {@code Meta} per response, the message concatenated and the status resolved twice.
+ * {@code streamingEnvelope} is {@link ResponseEnvelopes}. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm} for the per-request allocation; the size of both envelopes is reported
+ * as a secondary result.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseEnvelopeBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ResponseEnvelopes responseEnvelopes;
+    private Method handler;
+    private MeResponse body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responseEnvelopes = new ResponseEnvelopes(objectMapper);
+        handler = AuthController.class.getMethod("getCurrentUserInfo", WebRequest.class);
+        body = MeResponse.builder()
+                .accountId(1_234_567L)
+                .username("nguyenvana2024")
+                .email("nguyen.van.a.2024@student.uit.edu.vn")
+                .fullName("Nguyễn Văn A")
+                .status(AccountStatus.ACTIVE)
+                .role(Role.STUDENT)
+                .lastLoginAt(Instant.parse("2025-03-01T08:15:30Z"))
+                .build();
+    }
+
+    @Benchmark
+    public void legacyEnvelope(Sizes sizes) throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), legacyWrap(body, 200, handler));
+    }
+
+    @Benchmark
+    public void streamingEnvelope(Sizes sizes) throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), responseEnvelopes.wrap(body, 200, handler));
+    }
+
+    private static Object legacyWrap(Object body, int status, Method method) {
+        ApiMessage apiMessage = method.getAnnotation(ApiMessage.class);
+        String messageFromAnnotation = apiMessage != null ? apiMessage.value() : null;
+        return ApiResponse.builder()
+                .success(true)
+                .status(status)
+                .code(legacyCode(status))
+                .message(legacyMessage(status) + ": " + (messageFromAnnotation != null ? messageFromAnnotation : ""))
+                .data(body)
+                .timestamp(Instant.now())
+                .meta(ApiResponse.Meta.builder()
+                        .author("© 2025 Group 5 / VN.UIT.LMS")
+                        .license("Proprietary API – All rights reserved")
+                        .version("v1.0.0")
+                        .build())
+                .build();
+    }
+
+    private static String legacyCode(int status) {
+        HttpStatus httpStatus = HttpStatus.resolve(status);
+        if (httpStatus == null) {
+            return "UNKNOWN";
+        }
+        return httpStatus == HttpStatus.OK ? "SUCCESS" : httpStatus.name();
+    }
+
+    private static String legacyMessage(int status) {
+        HttpStatus httpStatus = HttpStatus.resolve(status);
+        if (httpStatus == null) {
+            return "Unknown status";
+        }
+        return httpStatus == HttpStatus.OK ? "Request processed successfully" : httpStatus.getReasonPhrase();
+    }
+
+    /**
+     * Serialized envelope sizes, written to the results next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        public int legacyBytes;
+        public int streamingBytes;
+
+        @Setup(Level.Iteration)
+        public void measure(ResponseEnvelopeBenchmark benchmark) throws Exception {
+            legacyBytes = benchmark.objectMapper.writeValueAsBytes(
+                    legacyWrap(benchmark.body, 200, benchmark.handler)).length;
+            streamingBytes = benchmark.objectMapper.writeValueAsBytes(
+                    benchmark.responseEnvelopes.wrap(benchmark.body, 200, benchmark.handler)).length;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package vn.uit.lms.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import vn.uit.lms.config.SecurityJwtConfiguration;
+import vn.uit.lms.config.jwt.JwtKeyRing;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.dto.response.ResLoginDTO;
+import vn.uit.lms.shared.util.SecurityUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification as wired in production: {@link SecurityUtils} on top of the
+ * {@link SecurityJwtConfiguration} encoder and decoder (metrics included), keyed by a
+ * {@link JwtKeyRing} with a process-local ES256 key or the legacy HS256 secret.
+ * <p>
+ * {@code decodeAndAuthenticate} is what every authenticated request pays.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityTokenBenchmark {
+
+    @Param({"ES256", "HS256"})
+    public String algorithm;
+
+    private SecurityUtils securityUtils;
+    private JwtDecoder decoder;
+    private JwtAuthenticationConverter converter;
+    private ResLoginDTO.UserInfo user;
+    private String accessToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String secret = Base64.getEncoder().encodeToString(
+                "benchmark-secret-benchmark-secret-benchmark-secret-0123456789".getBytes(StandardCharsets.UTF_8));
+        JwtKeyRing keyRing = new JwtKeyRing(new DefaultResourceLoader(), "", "", algorithm, true, secret);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SecurityJwtConfiguration configuration = new SecurityJwtConfiguration();
+
+        securityUtils = new SecurityUtils(configuration.jwtEncoder(keyRing, meterRegistry), keyRing,
+                86_400L, 8_640_000L, 2);
+        decoder = configuration.jwtDecoder(keyRing, meterRegistry);
+        converter = configuration.jwtAuthenticationConverter();
+        user = ResLoginDTO.UserInfo.builder()
+                .id(1_234_567L)
+                .username("nguyenvana2024")
+                .email("nguyen.van.a.2024@student.uit.edu.vn")
+                .role(Role.STUDENT)
+                .build();
+        accessToken = createAccessToken();
+    }
+
+    @Benchmark
+    public String createAccessToken() {
+        return securityUtils.createAccessToken(user, 89_012L);
+    }
+
+    @Benchmark
+    public String createRefreshToken() {
+        return securityUtils.createRefreshToken(user.getEmail());
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return decoder.decode(accessToken);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken decodeAndAuthenticate() {
+        return converter.convert(decoder.decode(accessToken));
+    }
+}
@@ -32,9 +32,13 @@ public class CorsConfig {
 
         // Allowed request headers
         config.setAllowedHeaders(Arrays.asList(
-                "Authorization", "Content-Type", "Accept", "X-Requested-With", "x-no-retry"
+                "Authorization", "Content-Type", "Accept", "X-Requested-With", "x-no-retry", "Idempotency-Key",
+                "If-None-Match"
         ));
 
+        // Response headers readable by the SPA (conditional GETs on /me)
+        config.setExposedHeaders(Arrays.asList("ETag"));
+
         // Allow cookies / authorization headers to be sent
         config.setAllowCredentials(true);
 
@@ -0,0 +1,43 @@
+package vn.uit.lms.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import vn.uit.lms.service.query.SqlCaptureInspector;
+
+/**
+ * Hibernate settings that cannot be expressed in application.yml.
+ */
+@Configuration
+public class HibernateConfiguration {
+
+    /**
+     * Registers the statement inspector used by the query guard's cost probe.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlCaptureInspector());
+    }
+
+    /**
+     * Per-table pooled sequences (see V5 migration) and JDBC insert/update batching.
+     * <p>
+     * Ids come from {@code <table>_seq} in blocks of 50 (pooled-lo), so Hibernate no longer needs a
+     * round trip per insert to learn the key and can group inserts of the same entity into batches.
+     * </p>
+     */
+    @Bean
+    public HibernatePropertiesCustomizer idGenerationAndBatchingCustomizer(
+            @Value("${app.jpa.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.put(AvailableSettings.ID_DB_STRUCTURE_NAMING_STRATEGY, TableSequenceNamingStrategy.class.getName());
+            properties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+            properties.put(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, "fix");
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize));
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, "true");
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, "true");
+        };
+    }
+}
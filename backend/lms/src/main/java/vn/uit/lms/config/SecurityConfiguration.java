@@ -1,6 +1,10 @@
 package vn.uit.lms.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -10,6 +14,8 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import vn.uit.lms.shared.constant.Role;
 
 import java.util.List;
 
@@ -21,10 +27,18 @@ public class SecurityConfiguration {
     private CustomUserDetailService userDetailsService;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
+    /**
+     * Actuator listens on {@code management.server.port}, which only the scraper can reach; requests
+     * arriving there skip authentication. Should actuator share the application port, only health is
+     * public and every other endpoint requires an admin.
+     */
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http, CustomAuthenticationEntryPoint customAuthenticationEntryPoint) throws Exception {
         String[] whiteList = {
@@ -35,6 +49,8 @@ public class SecurityConfiguration {
                 "/api/v1/auth/verify-email",
                 "/api/v1/auth/password/forgot",
                 "/api/v1/auth/password/reset",
+                "/api/v1/auth/availability",
+                "/.well-known/jwks.json",
                 "/storage/**",
                 "/v3/api-docs/**",
                 "/swagger-ui/**",
@@ -43,11 +59,19 @@ public class SecurityConfiguration {
         };
 
 
+        RequestMatcher managementPortRequest = request -> managementPort > 0 && request.getLocalPort() == managementPort;
+
         http.csrf(c -> c.disable())
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers(whiteList)
                         .permitAll()
+                        .requestMatchers(managementPortRequest)
+                        .permitAll()
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class))
+                        .permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint())
+                        .hasRole(Role.ADMIN.name())
                         .anyRequest().authenticated())
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .authenticationEntryPoint(customAuthenticationEntryPoint)
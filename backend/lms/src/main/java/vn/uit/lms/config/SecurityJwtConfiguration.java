@@ -1,23 +1,28 @@
 package vn.uit.lms.config;
 
-import com.nimbusds.jose.jwk.source.ImmutableSecret;
-import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import vn.uit.lms.config.jwt.JwtKeyRing;
+import vn.uit.lms.shared.util.AccessTokenClaims;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
-
-import static vn.uit.lms.shared.util.SecurityUtils.JWT_ALGORITHM;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration class for JWT encoding and decoding setup.
@@ -35,50 +40,53 @@ public class SecurityJwtConfiguration {
     private static final Logger LOG = LoggerFactory.getLogger(SecurityJwtConfiguration.class);
 
     /**
-     * The base64-encoded JWT secret key loaded from the application properties.
-     */
-    @Value("${jwt.secret}")
-    private String jwtKey;
-
-    /**
-     * Creates a {@link JwtAuthenticationConverter} bean that extracts granted authorities
-     * from a JWT's custom "permissions" claim.
+     * Creates a {@link JwtAuthenticationConverter} bean that maps the token's role to a single
+     * {@code ROLE_<role>} authority.
      * <p>
-     * Removes the default "ROLE_" prefix and directly maps permissions into Spring authorities.
+     * Reads both access-token claim versions (see {@link AccessTokenClaims}): the {@code r} claim
+     * of version 2 and the nested {@code user.role} of version 1.
      * </p>
      *
      * @return a configured {@link JwtAuthenticationConverter} instance
      */
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-        grantedAuthoritiesConverter.setAuthorityPrefix("ROLE_");
-        grantedAuthoritiesConverter.setAuthoritiesClaimName("role");
-
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwt -> AccessTokenClaims.role(jwt)
+                .<Collection<GrantedAuthority>>map(role -> List.of(new SimpleGrantedAuthority("ROLE_" + role.name())))
+                .orElse(List.of()));
         return jwtAuthenticationConverter;
     }
 
     /**
      * Creates a {@link JwtDecoder} bean used to validate and decode JWT tokens.
      * <p>
-     * Uses a symmetric secret key (HMAC) and the configured algorithm from {@link JWT_ALGORITHM}.
-     * Logs decoding errors for debugging and security tracing.
+     * Verifies against every key held by {@link JwtKeyRing} (chosen by the token's {@code kid}), so
+     * tokens signed before a key rotation stay valid. Logs decoding errors for debugging and security tracing.
      * </p>
      *
      * @return a configured {@link JwtDecoder} instance
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey())
-                .macAlgorithm(JWT_ALGORITHM)
-                .build();
+    public JwtDecoder jwtDecoder(JwtKeyRing jwtKeyRing, MeterRegistry meterRegistry) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(
+                jwtKeyRing.acceptedAlgorithms(), jwtKeyRing.verificationKeySource()));
+        // Expiry and other claim checks are done by the Spring validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
 
+        Timer validTimer = jwtTimer(meterRegistry, "decode", "success");
+        Timer invalidTimer = jwtTimer(meterRegistry, "decode", "failure");
         return token -> {
+            long start = System.nanoTime();
             try {
-                return jwtDecoder.decode(token);
+                Jwt jwt = jwtDecoder.decode(token);
+                validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return jwt;
             } catch (Exception e) {
+                invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 LOG.warn(">>> JWT error: {}", e.getMessage());
                 throw e;
             }
@@ -86,25 +94,27 @@ public class SecurityJwtConfiguration {
     }
 
     /**
-     * Creates a {@link JwtEncoder} bean for generating JWT tokens using the same secret key.
+     * Creates a {@link JwtEncoder} bean that signs with the active key of {@link JwtKeyRing}.
      *
      * @return a configured {@link JwtEncoder} instance
      */
     @Bean
-    public JwtEncoder jwtEncoder() {
-        return new NimbusJwtEncoder(new ImmutableSecret<>(getSecretKey()));
+    public JwtEncoder jwtEncoder(JwtKeyRing jwtKeyRing, MeterRegistry meterRegistry) {
+        NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(jwtKeyRing.signingKeySource());
+        Timer encodeTimer = jwtTimer(meterRegistry, "encode", "success");
+        return parameters -> {
+            long start = System.nanoTime();
+            Jwt jwt = jwtEncoder.encode(parameters);
+            encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return jwt;
+        };
     }
 
-    /**
-     * Converts the base64-encoded {@code jwtKey} into a {@link SecretKey} instance.
-     * <p>
-     * This key is used by both encoder and decoder for HMAC signing and verification.
-     * </p>
-     *
-     * @return a {@link SecretKey} based on the configured secret
-     */
-    private SecretKey getSecretKey() {
-        byte[] keyBytes = Base64.from(jwtKey).decode();
-        return new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
+    private static Timer jwtTimer(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Timer.builder("lms.auth.jwt")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .description("JWT signing and verification time")
+                .register(meterRegistry);
     }
 }
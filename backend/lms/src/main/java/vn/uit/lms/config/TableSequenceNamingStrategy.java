@@ -0,0 +1,45 @@
+package vn.uit.lms.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedNameParser;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Names the implicit id sequence of each entity {@code <table>_seq} (e.g. {@code accounts_seq}),
+ * matching the sequences created by the V5 migration.
+ */
+public class TableSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+
+    private static final String SUFFIX = "_seq";
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName,
+                                               Identifier schemaName,
+                                               Map<?, ?> configValues,
+                                               ServiceRegistry serviceRegistry) {
+        JdbcEnvironment jdbcEnvironment = serviceRegistry.requireService(JdbcEnvironment.class);
+        String table = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        return new QualifiedSequenceName(
+                catalogName,
+                schemaName,
+                jdbcEnvironment.getIdentifierHelper().toIdentifier(table + SUFFIX)
+        );
+    }
+
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName,
+                                            Identifier schemaName,
+                                            Map<?, ?> configValues,
+                                            ServiceRegistry serviceRegistry) {
+        String table = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        return QualifiedNameParser.INSTANCE.parse(table + SUFFIX);
+    }
+}
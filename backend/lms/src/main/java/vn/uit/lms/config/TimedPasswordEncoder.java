@@ -0,0 +1,58 @@
+package vn.uit.lms.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long hashing ({@code lms.auth.password{operation=encode}}) and verification
+ * ({@code operation=verify}, tagged with the result) take. At BCrypt cost these dominate login and
+ * import latency, so they are the numbers to size CPU for a login storm.
+ */
+class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+
+    TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode", "none");
+        this.matchTimer = timer(meterRegistry, "verify", "match");
+        this.mismatchTimer = timer(meterRegistry, "verify", "mismatch");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation, String result) {
+        return Timer.builder("lms.auth.password")
+                .tag("operation", operation)
+                .tag("result", result)
+                .description("Password hashing and verification time")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchTimer : mismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,80 @@
+package vn.uit.lms.config.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Per-request database diagnostics ({@code app.diagnostics.enabled}, on by default).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.diagnostics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DiagnosticsConfiguration {
+
+    /**
+     * Wraps the pool so every connection and statement reports to {@link RequestDiagnostics}.
+     * Static, as bean post-processors are created before the rest of the configuration.
+     */
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)
+                        ? new InstrumentedDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton entityLoadListenerRegistration(EntityManagerFactory entityManagerFactory) {
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, new EntityLoadListener());
+    }
+
+    @Bean
+    public RequestDiagnosticsFilter requestDiagnosticsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.diagnostics.slow-request-threshold:1s}") Duration slowRequestThreshold,
+            @Value("${app.diagnostics.statement-threshold:30}") long statementThreshold) {
+        return new RequestDiagnosticsFilter(meterRegistry, slowRequestThreshold, statementThreshold);
+    }
+
+    /**
+     * Outermost filter, so the rate limiter, the idempotency store and the security chain are
+     * measured as part of the request.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestDiagnosticsFilter> requestDiagnosticsFilterRegistration(
+            RequestDiagnosticsFilter requestDiagnosticsFilter) {
+        FilterRegistrationBean<RequestDiagnosticsFilter> registration =
+                new FilterRegistrationBean<>(requestDiagnosticsFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private static final class EntityLoadListener implements PostLoadEventListener {
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            RequestDiagnostics.entityLoaded();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package vn.uit.lms.config.diagnostics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Times connection acquisition and statement execution for {@link RequestDiagnostics}.
+ * <p>
+ * Connections and the statements they create are wrapped in JDK proxies that only intercept
+ * {@code getConnection}, {@code create/prepareStatement}, {@code prepareCall} and
+ * {@code execute*}; everything else, including {@code unwrap}, goes straight to the pool's objects.
+ * </p>
+ */
+class InstrumentedDataSource extends DelegatingDataSource {
+
+    InstrumentedDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        RequestDiagnostics.connectionAcquired(System.nanoTime() - start);
+        return wrap(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        RequestDiagnostics.connectionAcquired(System.nanoTime() - start);
+        return wrap(connection);
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // Identity semantics for the proxy itself, as Spring's own connection proxies do
+        if (method.getDeclaringClass() == Object.class) {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedDataSource.invoke(proxy, target, method, args);
+            if (result instanceof Statement statement) {
+                return Proxy.newProxyInstance(
+                        InstrumentedDataSource.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()},
+                        new StatementHandler(statement));
+            }
+            return result;
+        }
+    }
+
+    private record StatementHandler(Statement target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return InstrumentedDataSource.invoke(proxy, target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return InstrumentedDataSource.invoke(proxy, target, method, args);
+            } finally {
+                RequestDiagnostics.statementExecuted(System.nanoTime() - start);
+            }
+        }
+    }
+}
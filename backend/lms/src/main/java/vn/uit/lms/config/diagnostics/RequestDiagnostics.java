@@ -0,0 +1,119 @@
+package vn.uit.lms.config.diagnostics;
+
+import java.time.Duration;
+
+/**
+ * Per-thread database counters for the request (or test block) being executed.
+ * <p>
+ * {@link #open()} starts a scope on the current thread; JDBC statements, connection acquisition
+ * and Hibernate entity loads on that thread are then added to it until it is closed. Scopes nest:
+ * a closed scope adds its counts to the one it was opened in. Work done on other threads (async
+ * dispatches, {@code @Async} methods, the audit flusher) is not attributed to any request.
+ * </p>
+ */
+public final class RequestDiagnostics {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private RequestDiagnostics() {}
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void statementExecuted(long nanos) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statements++;
+            scope.statementNanos += nanos;
+        }
+    }
+
+    static void connectionAcquired(long nanos) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.connections++;
+            scope.connectionWaitNanos += nanos;
+        }
+    }
+
+    static void entityLoaded() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.entityLoads++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private long statements;
+        private long statementNanos;
+        private long connections;
+        private long connectionWaitNanos;
+        private long entityLoads;
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * JDBC statement executions; a batch counts once, as it is one round trip.
+         */
+        public long statements() {
+            return statements;
+        }
+
+        /**
+         * Time spent inside {@code execute*} calls.
+         */
+        public Duration databaseTime() {
+            return Duration.ofNanos(statementNanos);
+        }
+
+        public long connections() {
+            return connections;
+        }
+
+        /**
+         * Time spent waiting for the pool in {@code DataSource.getConnection()}.
+         */
+        public Duration connectionWait() {
+            return Duration.ofNanos(connectionWaitNanos);
+        }
+
+        public long entityLoads() {
+            return entityLoads;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent == null) {
+                CURRENT.remove();
+                return;
+            }
+            CURRENT.set(parent);
+            parent.statements += statements;
+            parent.statementNanos += statementNanos;
+            parent.connections += connections;
+            parent.connectionWaitNanos += connectionWaitNanos;
+            parent.entityLoads += entityLoads;
+        }
+
+        @Override
+        public String toString() {
+            return "statements=" + statements
+                    + " db_ms=" + statementNanos / 1_000_000
+                    + " connections=" + connections
+                    + " connection_wait_ms=" + connectionWaitNanos / 1_000_000
+                    + " entity_loads=" + entityLoads;
+        }
+    }
+}
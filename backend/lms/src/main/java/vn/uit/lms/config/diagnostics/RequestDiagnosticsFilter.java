@@ -0,0 +1,114 @@
+package vn.uit.lms.config.diagnostics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link RequestDiagnostics} scope around each request and reports it per endpoint.
+ * <p>
+ * Statement count, database time, connection wait and entity loads are recorded per method and
+ * matched URI pattern ({@code UNKNOWN} when no handler matched), as plain summaries and timers
+ * unless histograms are opted into through {@code management.metrics.distribution.*}.
+ * Requests slower than {@code app.diagnostics.slow-request-threshold}, or issuing more than
+ * {@code app.diagnostics.statement-threshold} statements, are logged as one {@code key=value} line
+ * on the {@code vn.uit.lms.slow-request} logger.
+ * </p>
+ */
+public class RequestDiagnosticsFilter extends OncePerRequestFilter {
+
+    private static final Logger slowRequestLog = LoggerFactory.getLogger("vn.uit.lms.slow-request");
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+    private final long slowRequestNanos;
+    private final long statementThreshold;
+
+    public RequestDiagnosticsFilter(MeterRegistry meterRegistry, Duration slowRequestThreshold, long statementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestNanos = slowRequestThreshold.toNanos();
+        this.statementThreshold = statementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestDiagnostics.Scope scope = RequestDiagnostics.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            report(request, response, scope, System.nanoTime() - start);
+        }
+    }
+
+    private void report(HttpServletRequest request,
+                        HttpServletResponse response,
+                        RequestDiagnostics.Scope scope,
+                        long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String method = request.getMethod();
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+
+        EndpointMeters meters = endpointMeters.computeIfAbsent(method + ' ' + uri,
+                key -> new EndpointMeters(meterRegistry, method, uri));
+        meters.statements.record(scope.statements());
+        meters.databaseTime.record(scope.databaseTime());
+        meters.connectionWait.record(scope.connectionWait());
+        meters.entityLoads.record(scope.entityLoads());
+
+        if (elapsedNanos >= slowRequestNanos || scope.statements() > statementThreshold) {
+            slowRequestLog.warn("slow_request method={} uri={} path={} status={} duration_ms={} {}",
+                    method, uri, request.getRequestURI(), response.getStatus(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), scope);
+        }
+    }
+
+    /**
+     * Meters of one method and URI pattern, registered on its first request. Histograms are not
+     * published here; enable them per name with {@code management.metrics.distribution.*}.
+     */
+    private static final class EndpointMeters {
+        private final DistributionSummary statements;
+        private final Timer databaseTime;
+        private final Timer connectionWait;
+        private final DistributionSummary entityLoads;
+
+        private EndpointMeters(MeterRegistry meterRegistry, String method, String uri) {
+            this.statements = DistributionSummary.builder("lms.http.sql.statements")
+                    .tags("method", method, "uri", uri)
+                    .description("JDBC statements executed per request")
+                    .register(meterRegistry);
+            this.databaseTime = Timer.builder("lms.http.sql.time")
+                    .tags("method", method, "uri", uri)
+                    .description("Time spent executing JDBC statements per request")
+                    .register(meterRegistry);
+            this.connectionWait = Timer.builder("lms.http.sql.connection.wait")
+                    .tags("method", method, "uri", uri)
+                    .description("Time spent waiting for a pooled connection per request")
+                    .register(meterRegistry);
+            this.entityLoads = DistributionSummary.builder("lms.http.entity.loads")
+                    .tags("method", method, "uri", uri)
+                    .description("Hibernate entities loaded per request")
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package vn.uit.lms.config.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfiguration {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties, JdbcTemplate jdbcTemplate) {
+        return properties.getStore() == IdempotencyProperties.Store.JDBC
+                ? new JdbcIdempotencyStore(jdbcTemplate, properties)
+                : new InMemoryIdempotencyStore(properties);
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(IdempotencyProperties properties,
+                                               IdempotencyStore idempotencyStore,
+                                               ObjectMapper objectMapper,
+                                               MeterRegistry meterRegistry) {
+        return new IdempotencyFilter(properties, idempotencyStore, objectMapper, meterRegistry);
+    }
+
+    /**
+     * Runs after the rate limiter (order 0), so a throttled request never claims a key.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(IdempotencyFilter idempotencyFilter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(idempotencyFilter);
+        registration.setOrder(1);
+        return registration;
+    }
+}
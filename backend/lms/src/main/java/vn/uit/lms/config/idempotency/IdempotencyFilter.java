@@ -0,0 +1,190 @@
+package vn.uit.lms.config.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import vn.uit.lms.config.ratelimit.CachedBodyRequest;
+import vn.uit.lms.shared.constant.ErrorCode;
+import vn.uit.lms.shared.dto.ApiResponse;
+import vn.uit.lms.shared.util.SecurityUtils;
+import vn.uit.lms.shared.util.TokenHashUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Makes mutating endpoints safe to retry with an {@code Idempotency-Key} header.
+ * <p>
+ * The first request with a key runs normally and its response is stored; retries with the same
+ * key and body get that response back (marked {@code Idempotent-Replayed: true}) without running
+ * the handler again, and a duplicate arriving while the first is still running waits for it.
+ * Keys are scoped to method, path and caller. Server errors and 429s are not stored, so they can
+ * be retried. Bodies over {@code app.idempotency.max-request-bytes} are refused with 413, as they
+ * could not be fingerprinted.
+ * </p>
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public IdempotencyFilter(IdempotencyProperties properties,
+                             IdempotencyStore store,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled() || !METHODS.contains(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return properties.getPaths().stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HEADER).strip();
+        if (header.isEmpty() || header.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, ErrorCode.INVALID_IDEMPOTENCY_KEY,
+                    HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cached = new CachedBodyRequest(request, properties.getMaxRequestBytes());
+        String key = TokenHashUtil.hashToken(request.getMethod() + ' ' + request.getRequestURI()
+                + '|' + SecurityUtils.getCurrentUserLogin().orElse("") + '|' + header);
+        byte[] body = cached.getCachedBody();
+        if (body == null) {
+            // without a fingerprint a reused key could replay a response for a different payload
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, ErrorCode.IDEMPOTENT_BODY_TOO_LARGE,
+                    "Requests with an " + HEADER + " are limited to " + properties.getMaxRequestBytes() + " bytes");
+            return;
+        }
+        String fingerprint = sha256(body);
+
+        IdempotencyStore.Acquisition acquisition;
+        try {
+            acquisition = store.acquire(key, fingerprint);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting for the original request", e);
+        }
+        meterRegistry.counter("lms.idempotency.requests", "outcome", acquisition.state().name().toLowerCase(Locale.ROOT))
+                .increment();
+
+        switch (acquisition.state()) {
+            case OWNER -> execute(cached, response, filterChain, key);
+            case BYPASS -> filterChain.doFilter(cached, response);
+            case REPLAY -> replay(response, acquisition.response());
+            case MISMATCH -> writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, ErrorCode.IDEMPOTENCY_KEY_REUSED,
+                    HEADER + " was already used with a different request body");
+            case IN_PROGRESS -> writeError(response, HttpStatus.CONFLICT, ErrorCode.REQUEST_IN_PROGRESS,
+                    "A request with this " + HEADER + " is still being processed");
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        store.purgeExpired();
+    }
+
+    private void execute(HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain filterChain,
+                         String key) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+
+            int status = wrapper.getStatus();
+            if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()
+                    && wrapper.getContentSize() <= properties.getMaxResponseBytes()) {
+                try {
+                    store.complete(key, new StoredResponse(status, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                    stored = true;
+                } catch (RuntimeException e) {
+                    log.warn("Could not store response for idempotency key; retries will execute again", e);
+                }
+            }
+        } finally {
+            if (!stored) {
+                store.release(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null && stored.body().length > 0) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String code, String message)
+            throws IOException {
+        log.debug("Idempotency check refused request: {}", message);
+
+        ApiResponse<Object> res = new ApiResponse<>();
+        res.setSuccess(Boolean.FALSE);
+        res.setStatus(status.value());
+        res.setCode(code);
+        res.setMessage(message);
+        res.setTimestamp(Instant.now());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), res);
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
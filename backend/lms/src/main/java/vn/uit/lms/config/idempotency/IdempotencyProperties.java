@@ -0,0 +1,53 @@
+package vn.uit.lms.config.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code Idempotency-Key} handling for mutating endpoints ({@code app.idempotency}).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    public enum Store { MEMORY, JDBC }
+
+    private boolean enabled = true;
+
+    /** {@code MEMORY} keeps keys on this node only; {@code JDBC} shares them through {@code idempotency_keys}. */
+    private Store store = Store.MEMORY;
+
+    /** How long a completed response is replayed. */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Upper bound on keys held by the in-memory store. */
+    private int maxEntries = 10_000;
+
+    /** How long a duplicate waits for the first request to finish before getting 409. */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /** A claim not completed within this time is considered abandoned (JDBC store only). */
+    private Duration lockTimeout = Duration.ofMinutes(1);
+
+    /** Largest body accepted with the header; it is fingerprinted to detect a key reused for another payload. */
+    private int maxRequestBytes = 64 * 1024;
+
+    /** Responses larger than this are not stored, so retries execute again. */
+    private int maxResponseBytes = 64 * 1024;
+
+    /** Ant patterns of the endpoints honouring the header. */
+    private List<String> paths = new ArrayList<>(List.of(
+            "/api/v1/auth/register",
+            "/api/v1/auth/password/forgot",
+            "/api/v1/auth/password/reset",
+            "/api/v1/auth/password/change",
+            "/api/v1/accounts/*/status",
+            "/api/v1/accounts/bulk/status",
+            "/api/v1/accounts/teacher/*/approve",
+            "/api/v1/accounts/teacher/*/reject"
+    ));
+}
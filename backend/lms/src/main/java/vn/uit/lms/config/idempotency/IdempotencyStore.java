@@ -0,0 +1,55 @@
+package vn.uit.lms.config.idempotency;
+
+/**
+ * Remembers the response of the first request made with an idempotency key.
+ * <p>
+ * {@link #acquire} either hands ownership of the key to the caller, who must then
+ * {@link #complete} or {@link #release} it, or returns the outcome of the earlier request,
+ * waiting for it while it is still in flight.
+ * </p>
+ */
+public interface IdempotencyStore {
+
+    enum State {
+        /** First request with this key: execute it. */
+        OWNER,
+        /** A stored response is available. */
+        REPLAY,
+        /** The key was first used with a different request body. */
+        MISMATCH,
+        /** The first request is still running after the wait timeout. */
+        IN_PROGRESS,
+        /** The store is full: execute without deduplication. */
+        BYPASS
+    }
+
+    record Acquisition(State state, StoredResponse response) {
+
+        static final Acquisition OWNER = new Acquisition(State.OWNER, null);
+        static final Acquisition MISMATCH = new Acquisition(State.MISMATCH, null);
+        static final Acquisition IN_PROGRESS = new Acquisition(State.IN_PROGRESS, null);
+        static final Acquisition BYPASS = new Acquisition(State.BYPASS, null);
+
+        static Acquisition replay(StoredResponse response) {
+            return new Acquisition(State.REPLAY, response);
+        }
+    }
+
+    /**
+     * @param key         scoped key (method, path, caller and header value)
+     * @param fingerprint hash of the request body
+     */
+    Acquisition acquire(String key, String fingerprint) throws InterruptedException;
+
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Gives up ownership without storing anything, so the next retry executes again.
+     */
+    void release(String key);
+
+    /**
+     * Drops expired keys.
+     */
+    void purgeExpired();
+}
@@ -0,0 +1,94 @@
+package vn.uit.lms.config.idempotency;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Node-local store: duplicates block on the first request's future instead of polling.
+ * <p>
+ * At most {@code maxEntries} keys are held; when full, expired keys are swept and, if that
+ * frees nothing, new keys bypass deduplication rather than evicting live ones.
+ * </p>
+ */
+class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private record Entry(String fingerprint, CompletableFuture<StoredResponse> result, long createdAt) {
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long waitNanos;
+
+    InMemoryIdempotencyStore(IdempotencyProperties properties) {
+        this.maxEntries = properties.getMaxEntries();
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.waitNanos = properties.getWaitTimeout().toNanos();
+    }
+
+    @Override
+    public Acquisition acquire(String key, String fingerprint) throws InterruptedException {
+        long deadline = System.nanoTime() + waitNanos;
+        while (true) {
+            long now = System.nanoTime();
+            if (entries.size() >= maxEntries) {
+                purgeExpired();
+                if (entries.size() >= maxEntries) {
+                    return Acquisition.BYPASS;
+                }
+            }
+
+            Entry mine = new Entry(fingerprint, new CompletableFuture<>(), now);
+            Entry existing = entries.putIfAbsent(key, mine);
+            if (existing == null) {
+                return Acquisition.OWNER;
+            }
+            if (expired(existing, now)) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+                return Acquisition.MISMATCH;
+            }
+
+            try {
+                return Acquisition.replay(existing.result().get(Math.max(0, deadline - now), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                return Acquisition.IN_PROGRESS;
+            } catch (CancellationException | ExecutionException e) {
+                // the owner released the key; race the other waiters for it
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.result().complete(response);
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.result().cancel(false);
+        }
+    }
+
+    @Override
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> expired(entry, now));
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return entry.result().isDone() && now - entry.createdAt() > ttlNanos;
+    }
+}
@@ -0,0 +1,109 @@
+package vn.uit.lms.config.idempotency;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Postgres-backed store shared by every node ({@code idempotency_keys}).
+ * <p>
+ * A key is claimed with one {@code INSERT ... ON CONFLICT}; a claim older than
+ * {@code lock-timeout} or a completed entry past its TTL can be taken over. Duplicates poll the
+ * row with a growing back-off until the owner completes it or the wait timeout elapses.
+ * </p>
+ */
+class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at, expires_at)
+            VALUES (?, ?, now(), ?)
+            ON CONFLICT (idempotency_key) DO UPDATE
+                SET fingerprint = EXCLUDED.fingerprint,
+                    status_code = NULL,
+                    content_type = NULL,
+                    body = NULL,
+                    created_at = EXCLUDED.created_at,
+                    expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at < now()
+            RETURNING idempotency_key
+            """;
+
+    private static final String SELECT_SQL = """
+            SELECT fingerprint, status_code, content_type, body
+            FROM idempotency_keys
+            WHERE idempotency_key = ?
+            """;
+
+    private static final long MIN_POLL_MILLIS = 20;
+    private static final long MAX_POLL_MILLIS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyProperties properties;
+
+    JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, IdempotencyProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    private record Row(String fingerprint, Integer status, String contentType, byte[] body) {
+    }
+
+    @Override
+    public Acquisition acquire(String key, String fingerprint) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        long pause = MIN_POLL_MILLIS;
+        while (true) {
+            Timestamp lockExpiry = Timestamp.from(Instant.now().plus(properties.getLockTimeout()));
+            if (!jdbcTemplate.queryForList(CLAIM_SQL, String.class, key, fingerprint, lockExpiry).isEmpty()) {
+                return Acquisition.OWNER;
+            }
+
+            List<Row> rows = jdbcTemplate.query(SELECT_SQL, (rs, i) -> new Row(
+                    rs.getString(1),
+                    (Integer) rs.getObject(2),
+                    rs.getString(3),
+                    rs.getBytes(4)), key);
+            if (rows.isEmpty()) {
+                continue;   // released between the claim and the read
+            }
+            Row row = rows.get(0);
+            if (!Objects.equals(row.fingerprint(), fingerprint)) {
+                return Acquisition.MISMATCH;
+            }
+            if (row.status() != null) {
+                return Acquisition.replay(new StoredResponse(row.status(), row.contentType(), row.body()));
+            }
+
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                return Acquisition.IN_PROGRESS;
+            }
+            Thread.sleep(Math.min(pause, remainingMillis));
+            pause = Math.min(MAX_POLL_MILLIS, pause * 2);
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbcTemplate.update("""
+                        UPDATE idempotency_keys
+                        SET status_code = ?, content_type = ?, body = ?, expires_at = ?
+                        WHERE idempotency_key = ?
+                        """,
+                response.status(), response.contentType(), response.body(),
+                Timestamp.from(Instant.now().plus(properties.getTtl())), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status_code IS NULL", key);
+    }
+
+    @Override
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < now()");
+    }
+}
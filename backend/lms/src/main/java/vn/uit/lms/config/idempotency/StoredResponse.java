@@ -0,0 +1,7 @@
+package vn.uit.lms.config.idempotency;
+
+/**
+ * The first response produced for an idempotency key, replayed byte for byte to retries.
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
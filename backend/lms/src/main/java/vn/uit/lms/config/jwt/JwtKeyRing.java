@@ -0,0 +1,188 @@
+package vn.uit.lms.config.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keys used to sign and verify JWTs, held in memory and swapped atomically.
+ * <p>
+ * Tokens are signed with ES256 by the active key and carry its {@code kid}; every key in the
+ * configured JWK set ({@code jwt.signing.jwk-set-location}) verifies, so a rotation is: add the
+ * new key, wait for every node and downstream JWKS cache to pick it up, switch
+ * {@code jwt.signing.active-kid}, and drop the old key once its last tokens have expired. The
+ * file is re-read when it changes, without a restart.
+ * </p>
+ * <p>
+ * The legacy HS256 secret ({@code jwt.secret}) still verifies older tokens while
+ * {@code jwt.signing.accept-hmac} is on, and {@code jwt.signing.algorithm=HS256} keeps signing with
+ * it until every node can verify ES256. The secret is never published.
+ * </p>
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private record Keys(ECKey active, JWKSet signing, JWKSet verification, JWKSet published, long lastModified) {
+    }
+
+    private final Resource location;
+    private final String configuredActiveKid;
+    private final boolean signWithHmac;
+    private final OctetSequenceKey hmacKey;
+
+    private volatile Keys keys;
+
+    public JwtKeyRing(ResourceLoader resourceLoader,
+                      @Value("${jwt.signing.jwk-set-location:}") String location,
+                      @Value("${jwt.signing.active-kid:}") String activeKid,
+                      @Value("${jwt.signing.algorithm:ES256}") String algorithm,
+                      @Value("${jwt.signing.accept-hmac:true}") boolean acceptHmac,
+                      @Value("${jwt.secret:}") String secret) {
+        this.location = location.isBlank() ? null : resourceLoader.getResource(location);
+        this.configuredActiveKid = activeKid.isBlank() ? null : activeKid;
+        this.signWithHmac = MacAlgorithm.HS256.getName().equalsIgnoreCase(algorithm);
+        this.hmacKey = (acceptHmac || signWithHmac) && !secret.isBlank()
+                ? new OctetSequenceKey.Builder(Base64.from(secret).decode()).algorithm(JWSAlgorithm.HS256).build()
+                : null;
+        if (signWithHmac && hmacKey == null) {
+            throw new IllegalStateException("jwt.signing.algorithm=HS256 requires jwt.secret");
+        }
+        this.keys = load();
+    }
+
+    /**
+     * Header for newly issued tokens.
+     */
+    public JwsHeader signingHeader() {
+        return signWithHmac
+                ? JwsHeader.with(MacAlgorithm.HS256).build()
+                : JwsHeader.with(SignatureAlgorithm.ES256).keyId(keys.active().getKeyID()).build();
+    }
+
+    public Set<JWSAlgorithm> acceptedAlgorithms() {
+        return hmacKey != null ? Set.of(JWSAlgorithm.ES256, JWSAlgorithm.HS256) : Set.of(JWSAlgorithm.ES256);
+    }
+
+    /**
+     * Public keys for downstream verifiers.
+     */
+    public JWKSet publishedKeys() {
+        return keys.published();
+    }
+
+    public JWKSource<SecurityContext> signingKeySource() {
+        return (selector, context) -> selector.select(keys.signing());
+    }
+
+    public JWKSource<SecurityContext> verificationKeySource() {
+        return (selector, context) -> selector.select(keys.verification());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        if (location == null) {
+            return;
+        }
+        try {
+            if (location.lastModified() == keys.lastModified()) {
+                return;
+            }
+            Keys reloaded = load();
+            keys = reloaded;
+            log.info("Reloaded JWT keys: active kid={}, {} verification keys",
+                    reloaded.active().getKeyID(), reloaded.published().size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not reload JWT keys from {}; keeping the current ones", location, e);
+        }
+    }
+
+    private Keys load() {
+        List<ECKey> ecKeys = new ArrayList<>();
+        long lastModified = 0;
+        if (location == null) {
+            log.warn("jwt.signing.jwk-set-location is not set: signing with a key generated for this process only. "
+                    + "Tokens will not survive a restart or validate on other nodes.");
+            ecKeys.add(generate());
+        } else {
+            try (InputStream in = location.getInputStream()) {
+                lastModified = location.lastModified();
+                for (JWK jwk : JWKSet.load(in).getKeys()) {
+                    if (!(jwk instanceof ECKey ec) || !Curve.P_256.equals(ec.getCurve()) || ec.getKeyID() == null) {
+                        throw new IllegalStateException("JWT keys must be P-256 EC keys with a kid, got " + jwk.getKeyID());
+                    }
+                    ecKeys.add(ec);
+                }
+            } catch (IOException | ParseException e) {
+                throw new IllegalStateException("Cannot read JWT keys from " + location, e);
+            }
+        }
+
+        ECKey active = selectActive(ecKeys);
+
+        List<JWK> signing = new ArrayList<>(List.of(active));
+        List<JWK> verification = new ArrayList<>();
+        List<JWK> published = new ArrayList<>();
+        for (ECKey key : ecKeys) {
+            verification.add(key.toPublicJWK());
+            published.add(key.toPublicJWK());
+        }
+        if (hmacKey != null) {
+            signing.add(hmacKey);
+            verification.add(hmacKey);
+        }
+        return new Keys(active, new JWKSet(signing), new JWKSet(verification), new JWKSet(published), lastModified);
+    }
+
+    private ECKey selectActive(List<ECKey> ecKeys) {
+        List<ECKey> candidates = ecKeys.stream()
+                .filter(ECKey::isPrivate)
+                .filter(key -> configuredActiveKid == null || configuredActiveKid.equals(key.getKeyID()))
+                .toList();
+        if (candidates.size() != 1) {
+            throw new IllegalStateException(configuredActiveKid != null
+                    ? "No private JWT key with kid " + configuredActiveKid
+                    : "Set jwt.signing.active-kid: the JWK set has " + candidates.size() + " private keys");
+        }
+        return candidates.get(0);
+    }
+
+    private static ECKey generate() {
+        try {
+            return new ECKeyGenerator(Curve.P_256)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.ES256)
+                    .keyIDFromThumbprint(true)
+                    .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot generate a JWT signing key", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package vn.uit.lms.config.ratelimit;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the first {@code limit} bytes of the body so the filter can inspect them, and replays
+ * them (followed by whatever was not read) to the rest of the chain.
+ */
+public final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] head;
+    private final boolean complete;
+    private final InputStream body;
+
+    public CachedBodyRequest(HttpServletRequest request, int limit) throws IOException {
+        super(request);
+        InputStream original = request.getInputStream();
+        byte[] read = original.readNBytes(limit + 1);
+        this.complete = read.length <= limit;
+        this.head = read;
+        this.body = new SequenceInputStream(new ByteArrayInputStream(read), original);
+    }
+
+    /**
+     * @return the whole body, or {@code null} if it is longer than the limit
+     */
+    public byte[] getCachedBody() {
+        return complete ? head : null;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            private boolean finished;
+
+            @Override
+            public int read() throws IOException {
+                int b = body.read();
+                finished = b == -1;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = body.read(b, off, len);
+                finished = n == -1;
+                return n;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return finished;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            /**
+             * The head is already in memory and the rest comes from the container's stream, which
+             * blocking reads drain, so the data is reported available straight away.
+             */
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    readListener.onDataAvailable();
+                    if (finished) {
+                        readListener.onAllDataRead();
+                    }
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+    }
+}
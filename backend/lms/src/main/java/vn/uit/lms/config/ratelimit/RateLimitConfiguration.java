@@ -0,0 +1,30 @@
+package vn.uit.lms.config.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties,
+                                           ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) {
+        return new RateLimitFilter(properties, objectMapper, meterRegistry);
+    }
+
+    /**
+     * Runs after the Spring Security chain (order -100) so CORS headers are already on a 429.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setOrder(0);
+        return registration;
+    }
+}
@@ -0,0 +1,157 @@
+package vn.uit.lms.config.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+import vn.uit.lms.shared.constant.ErrorCode;
+import vn.uit.lms.shared.dto.ApiResponse;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throttles the public auth endpoints before they reach a controller.
+ * <p>
+ * Each matching request takes a token from the bucket of its client IP and, when the policy names
+ * an identifier field, from the bucket of that body value. An empty bucket answers
+ * {@code 429 Too Many Requests} with {@code Retry-After}, so throttled requests never reach the
+ * password encoder or the database. On paths with an identifier field, bodies larger than
+ * {@code max-body-bytes} are refused with {@code 413}: padding the JSON must not skip the
+ * per-identifier bucket.
+ * </p>
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TokenBucketRegistry buckets;
+    private final Map<String, RateLimitProperties.Policy> policies = new HashMap<>();
+    private final Map<String, Counter> rejections = new HashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.buckets = new TokenBucketRegistry(properties.getMaxKeys());
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            policies.put(policy.getPath(), policy);
+            rejections.put(policy.getPath(), Counter.builder("lms.ratelimit.rejected")
+                    .tag("path", policy.getPath())
+                    .description("Requests refused with 429")
+                    .register(meterRegistry));
+        }
+        meterRegistry.gauge("lms.ratelimit.buckets", buckets, TokenBucketRegistry::size);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !policies.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimitProperties.Policy policy = policies.get(request.getRequestURI());
+        long now = System.nanoTime();
+
+        // The client address as resolved by the container: X-Forwarded-For is only honoured from
+        // trusted proxies (server.forward-headers-strategy), never taken from the client as is
+        String ip = request.getRemoteAddr();
+        long waitNanos = buckets.tryAcquire(policy.getPath() + "|ip|" + ip,
+                policy.getIpCapacity(), policy.getIpRefillPerMinute(), now);
+
+        HttpServletRequest forwarded = request;
+        if (waitNanos == 0 && policy.getIdentifierField() != null) {
+            CachedBodyRequest cached = new CachedBodyRequest(request, properties.getMaxBodyBytes());
+            forwarded = cached;
+            byte[] body = cached.getCachedBody();
+            if (body == null) {
+                log.warn("Refused an oversized body on {} from {}", policy.getPath(), ip);
+                writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, ErrorCode.PAYLOAD_TOO_LARGE,
+                        "Request body is limited to " + properties.getMaxBodyBytes() + " bytes");
+                return;
+            }
+            String identifier = readIdentifier(body, policy.getIdentifierField());
+            if (identifier != null) {
+                waitNanos = buckets.tryAcquire(policy.getPath() + "|id|" + identifier,
+                        policy.getIdentifierCapacity(), policy.getIdentifierRefillPerMinute(), now);
+            }
+        }
+
+        if (waitNanos > 0) {
+            reject(response, policy, ip, waitNanos);
+            return;
+        }
+        filterChain.doFilter(forwarded, response);
+    }
+
+    /**
+     * Drops buckets that have been idle longer than {@code app.rate-limit.idle-timeout}.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        buckets.evictIdle(System.nanoTime(), properties.getIdleTimeout().toNanos());
+    }
+
+    private String readIdentifier(byte[] body, String field) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode value = objectMapper.readTree(body).get(field);
+            return value != null && value.isTextual() ? value.asText().strip().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null;    // malformed JSON is rejected later by request validation
+        }
+    }
+
+    private void reject(HttpServletResponse response,
+                        RateLimitProperties.Policy policy,
+                        String ip,
+                        long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        rejections.get(policy.getPath()).increment();
+        log.warn("Rate limit hit on {} from {}, retry after {}s", policy.getPath(), ip, retryAfterSeconds);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, ErrorCode.TOO_MANY_REQUESTS,
+                "Too many requests, retry after " + retryAfterSeconds + " seconds");
+    }
+
+    private void writeError(HttpServletResponse response,
+                            HttpStatus status,
+                            String code,
+                            String message) throws IOException {
+        ApiResponse<Object> res = new ApiResponse<>();
+        res.setSuccess(Boolean.FALSE);
+        res.setStatus(status.value());
+        res.setCode(code);
+        res.setMessage(message);
+        res.setTimestamp(Instant.now());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), res);
+    }
+}
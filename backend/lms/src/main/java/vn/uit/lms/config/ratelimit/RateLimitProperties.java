@@ -0,0 +1,56 @@
+package vn.uit.lms.config.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token-bucket policies for unauthenticated endpoints ({@code app.rate-limit}).
+ * <p>
+ * Every policy limits requests per client IP; policies with an {@code identifier-field} also limit
+ * requests per value of that JSON body field (e.g. the login name), so one account cannot be
+ * brute-forced from many addresses.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Upper bound on tracked buckets; least recently used ones are dropped first. */
+    private int maxKeys = 100_000;
+
+    /** Buckets untouched for this long are evicted (they would be full again anyway). */
+    private Duration idleTimeout = Duration.ofMinutes(15);
+
+    /** Largest request body inspected for the identifier field; larger ones are refused with 413. */
+    private int maxBodyBytes = 16 * 1024;
+
+    private List<Policy> policies = new ArrayList<>(List.of(
+            new Policy("/api/v1/auth/login", 20, 20, "login", 5, 5),
+            new Policy("/api/v1/auth/register", 5, 5, "email", 3, 3),
+            new Policy("/api/v1/auth/password/forgot", 5, 5, "email", 3, 3),
+            new Policy("/api/v1/auth/password/reset", 10, 10, null, 0, 0),
+            new Policy("/api/v1/auth/refresh", 30, 30, null, 0, 0),
+            new Policy("/api/v1/auth/verify-email", 10, 10, null, 0, 0),
+            new Policy("/api/v1/auth/availability", 120, 120, null, 0, 0)
+    ));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+        private String path;
+        private int ipCapacity;                 // burst per IP
+        private int ipRefillPerMinute;
+        private String identifierField;         // optional JSON body field limited per value
+        private int identifierCapacity;
+        private int identifierRefillPerMinute;
+    }
+}
@@ -0,0 +1,104 @@
+package vn.uit.lms.config.ratelimit;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, lock-striped map of token buckets.
+ * <p>
+ * Keys hash to one of {@value #STRIPES} stripes, each an access-ordered map guarded by its own
+ * monitor, so contention is limited to keys sharing a stripe. Each stripe holds at most
+ * {@code maxKeys / STRIPES} buckets and drops the least recently used one when full.
+ * </p>
+ */
+final class TokenBucketRegistry {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    TokenBucketRegistry(int maxKeys) {
+        int perStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Takes one token from the bucket of {@code key}, creating a full bucket on first use.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    long tryAcquire(String key, int capacity, int refillPerMinute, long nowNanos) {
+        double refillPerNano = refillPerMinute / 60_000_000_000d;
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, nowNanos);
+                stripe.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (nowNanos - bucket.updatedAt) * refillPerNano);
+                bucket.updatedAt = nowNanos;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return refillPerNano > 0 ? (long) Math.ceil((1 - bucket.tokens) / refillPerNano) : Long.MAX_VALUE;
+        }
+    }
+
+    void evictIdle(long nowNanos, long idleNanos) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                // Access order: the eldest entries come first
+                Iterator<Bucket> it = stripe.values().iterator();
+                while (it.hasNext() && nowNanos - it.next().updatedAt > idleNanos) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maxEntries;
+
+        private Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package vn.uit.lms.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import vn.uit.lms.service.diagnostics.FlightRecorderService;
+import vn.uit.lms.shared.util.annotation.AdminOnly;
+import vn.uit.lms.shared.util.annotation.ApiMessage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@Validated
+@RequestMapping("/api/v1/admin/diagnostics")
+public class DiagnosticsController {
+
+    // Sanity bound on the parameter; dump() clamps anything longer than the recording's max-age to it
+    private static final int MAX_WINDOW_MINUTES = 24 * 60;
+
+    private final FlightRecorderService flightRecorderService;
+
+    public DiagnosticsController(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    @GetMapping("/flight-recording")
+    @ApiMessage("Download the last minutes of the continuous flight recording (Admin only)")
+    @AdminOnly
+    public void downloadFlightRecording(
+            @RequestParam(defaultValue = "5") @Min(1) @Max(MAX_WINDOW_MINUTES) int minutes,
+            HttpServletResponse response
+    ) throws IOException {
+        Path file = flightRecorderService.dump(Duration.ofMinutes(minutes));
+        try {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(Files.size(file));
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("lms-" + Instant.now().getEpochSecond() + ".jfr")
+                    .build()
+                    .toString());
+            Files.copy(file, response.getOutputStream());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package vn.uit.lms.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import vn.uit.lms.config.jwt.JwtKeyRing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the public JWT verification keys (RFC 7517 JWK set) so other services can validate
+ * LMS tokens locally. Served as a plain string, outside the {@code ApiResponse} envelope.
+ */
+@RestController
+public class JwksController {
+
+    private static final String JWK_SET_CONTENT_TYPE = "application/jwk-set+json";
+
+    private final JwtKeyRing jwtKeyRing;
+
+    public JwksController(JwtKeyRing jwtKeyRing) {
+        this.jwtKeyRing = jwtKeyRing;
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = JWK_SET_CONTENT_TYPE)
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(jwtKeyRing.publishedKeys().toString(true));
+    }
+}
@@ -1,32 +1,49 @@
 package vn.uit.lms.controller.auth;
 
-import com.turkraft.springfilter.boot.Filter;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import vn.uit.lms.core.entity.Account;
 import vn.uit.lms.core.entity.AccountActionLog;
 import vn.uit.lms.service.AccountService;
+import vn.uit.lms.service.export.ExportService;
+import vn.uit.lms.service.importer.AccountImportService;
+import vn.uit.lms.service.profile.ProfileCache;
 import vn.uit.lms.shared.constant.AccountActionType;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.CountMode;
+import vn.uit.lms.shared.constant.ExportFormat;
+import vn.uit.lms.shared.constant.Role;
 import vn.uit.lms.shared.constant.SecurityConstants;
 import vn.uit.lms.shared.dto.ApiResponse;
+import vn.uit.lms.shared.dto.CursorPageResponse;
 import vn.uit.lms.shared.dto.PageResponse;
+import vn.uit.lms.shared.dto.request.account.BulkStatusChangeRequest;
 import vn.uit.lms.shared.dto.request.account.RejectRequest;
 import vn.uit.lms.shared.dto.request.account.UpdateProfileRequest;
 import vn.uit.lms.shared.dto.request.account.UpdateStatusRequest;
+import vn.uit.lms.shared.dto.response.account.AccountImportResponse;
 import vn.uit.lms.shared.dto.response.account.AccountProfileResponse;
 import vn.uit.lms.shared.dto.response.account.AccountResponse;
+import vn.uit.lms.shared.dto.response.account.AccountSearchResponse;
+import vn.uit.lms.shared.dto.response.account.BulkStatusChangeResponse;
 import vn.uit.lms.shared.dto.response.account.UploadAvatarResponse;
 import vn.uit.lms.shared.dto.response.log.AccountActionLogResponse;
+import vn.uit.lms.shared.exception.InvalidFileException;
 import vn.uit.lms.shared.exception.UnauthorizedException;
 import vn.uit.lms.shared.util.CloudinaryUtils;
 import vn.uit.lms.shared.util.JsonViewUtils;
@@ -35,7 +52,10 @@ import vn.uit.lms.shared.util.annotation.AdminOnly;
 import vn.uit.lms.shared.util.annotation.ApiMessage;
 import vn.uit.lms.shared.view.Views;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -43,19 +63,33 @@ import java.util.Optional;
 public class AccountController {
 
     private final AccountService accountService;
+    private final ExportService exportService;
+    private final AccountImportService accountImportService;
+    private final JsonViewUtils jsonViewUtils;
     private final static Logger log = LoggerFactory.getLogger(AccountController.class);
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService,
+                             ExportService exportService,
+                             AccountImportService accountImportService,
+                             JsonViewUtils jsonViewUtils) {
         this.accountService = accountService;
+        this.exportService = exportService;
+        this.accountImportService = accountImportService;
+        this.jsonViewUtils = jsonViewUtils;
     }
 
     @GetMapping("/me")
     @ApiMessage("Get profile of the authenticated user")
-    public ResponseEntity<ApiResponse<Object>> getProfile() {
+    public ResponseEntity<ApiResponse<Object>> getProfile(WebRequest webRequest) {
 
-        AccountProfileResponse response = accountService.getProfile();
+        ProfileCache.Snapshot snapshot = accountService.getProfile();
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return null;
+        }
 
-        return ResponseEntity.ok(JsonViewUtils.formatAccountProfileResponse(response));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(jsonViewUtils.formatAccountProfileResponse(snapshot.profile()));
     }
 
     @PostMapping(value = "/me/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -85,10 +119,84 @@ public class AccountController {
     @ApiMessage("Get all accounts (Admin only)")
     @AdminOnly
     public ResponseEntity<PageResponse<AccountResponse>> getAllAccounts(
-            @Filter Specification<Account> spec,
+            @RequestParam(required = false) String filter,
             Pageable pageable
     ) {
-        PageResponse<AccountResponse> res = accountService.getAllAccounts(spec, pageable);
+        PageResponse<AccountResponse> res = accountService.getAllAccounts(filter, pageable);
+        return ResponseEntity.ok(res);
+    }
+
+    @GetMapping("/cursor")
+    @ApiMessage("Get accounts by cursor (Admin only)")
+    @AdminOnly
+    public ResponseEntity<CursorPageResponse<AccountResponse>> getAccountsByCursor(
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "NONE") CountMode count
+    ) {
+        CursorPageResponse<AccountResponse> res = accountService.getAccountsByCursor(filter, cursor, size, count);
+        return ResponseEntity.ok(res);
+    }
+
+    @GetMapping("/search")
+    @ApiMessage("Search accounts by name, email or code (Admin only)")
+    @AdminOnly
+    public ResponseEntity<List<AccountSearchResponse>> searchAccounts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        List<AccountSearchResponse> res = accountService.searchAccounts(query, limit);
+        return ResponseEntity.ok(res);
+    }
+
+    @GetMapping("/export")
+    @ApiMessage("Export accounts as CSV or NDJSON (Admin only)")
+    @AdminOnly
+    public void exportAccounts(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) AccountStatus status,
+            HttpServletResponse response
+    ) throws IOException {
+        prepareExport(response, "accounts", format);
+        exportService.exportAccounts(format, from, to, role, status, response.getOutputStream());
+    }
+
+    @GetMapping("/logs/export")
+    @ApiMessage("Export account activity logs as CSV or NDJSON (Admin only)")
+    @AdminOnly
+    public void exportAccountLogs(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) AccountActionType actionType,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) AccountStatus status,
+            HttpServletResponse response
+    ) throws IOException {
+        prepareExport(response, "account-logs", format);
+        exportService.exportAccountLogs(format, from, to, accountId, actionType, role, status, response.getOutputStream());
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ApiMessage("Import student and teacher accounts from CSV or NDJSON (Admin only)")
+    @AdminOnly
+    public ResponseEntity<AccountImportResponse> importAccounts(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) ExportFormat format
+    ) throws IOException {
+        if (file.isEmpty()) {
+            throw new InvalidFileException("Import file is empty");
+        }
+        if (format == null) {
+            String name = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase();
+            format = name.endsWith(".ndjson") || name.endsWith(".jsonl") ? ExportFormat.NDJSON : ExportFormat.CSV;
+        }
+        AccountImportResponse res = accountImportService.importAccounts(file.getInputStream(), format);
         return ResponseEntity.ok(res);
     }
 
@@ -99,7 +207,7 @@ public class AccountController {
             @PathVariable Long id
     ) {
         AccountProfileResponse res = accountService.getAccountById(id);
-        return ResponseEntity.ok(JsonViewUtils.formatAccountProfileResponse(res));
+        return ResponseEntity.ok(jsonViewUtils.formatAccountProfileResponse(res));
     }
 
     @PatchMapping("/teacher/{id}/approve")
@@ -111,7 +219,7 @@ public class AccountController {
     ) {
         String ip = Optional.ofNullable(request.getHeader("X-Forwarded-For")).orElse(request.getRemoteAddr());
         AccountProfileResponse res = accountService.approveTeacherAccount(id, ip);
-        return ResponseEntity.ok(JsonViewUtils.formatAccountProfileResponse(res));
+        return ResponseEntity.ok(jsonViewUtils.formatAccountProfileResponse(res));
     }
 
     @PatchMapping("/teacher/{id}/reject")
@@ -124,7 +232,7 @@ public class AccountController {
     ) {
         String ip = Optional.ofNullable(request.getHeader("X-Forwarded-For")).orElse(request.getRemoteAddr());
         AccountProfileResponse result = accountService.rejectTeacherAccount(id, rejectRequest.getReason(), ip);
-        return ResponseEntity.ok(JsonViewUtils.formatAccountProfileResponse(result));
+        return ResponseEntity.ok(jsonViewUtils.formatAccountProfileResponse(result));
     }
 
     @PatchMapping("{id}/status")
@@ -137,7 +245,20 @@ public class AccountController {
     ){
         String ip = Optional.ofNullable(request.getHeader("X-Forwarded-For")).orElse(request.getRemoteAddr());
         AccountProfileResponse res = accountService.changeAccountStatus(id, statusRequest.getStatus(), statusRequest.getReason(), ip);
-        return ResponseEntity.ok(JsonViewUtils.formatAccountProfileResponse(res));
+        return ResponseEntity.ok(jsonViewUtils.formatAccountProfileResponse(res));
+    }
+
+    @PatchMapping("/bulk/status")
+    @ApiMessage("Change status of many accounts (Admin only)")
+    @AdminOnly
+    public ResponseEntity<BulkStatusChangeResponse> bulkChangeAccountStatus(
+            @Valid @RequestBody BulkStatusChangeRequest bulkRequest,
+            HttpServletRequest request
+    ){
+        String ip = Optional.ofNullable(request.getHeader("X-Forwarded-For")).orElse(request.getRemoteAddr());
+        BulkStatusChangeResponse res = accountService.bulkChangeAccountStatus(
+                bulkRequest.getAccountIds(), bulkRequest.getStatus(), bulkRequest.getReason(), ip);
+        return ResponseEntity.ok(res);
     }
 
     @GetMapping("/{id}/logs")
@@ -153,6 +274,19 @@ public class AccountController {
     }
 
 
+    @GetMapping("/{id}/logs/cursor")
+    @ApiMessage("Get account activity logs by cursor (Admin only)")
+    @AdminOnly
+    public ResponseEntity<CursorPageResponse<AccountActionLogResponse>> getAccountActivityLogsByCursor(
+            @PathVariable Long id,
+            @RequestParam(required = false) AccountActionType actionType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ){
+        CursorPageResponse<AccountActionLogResponse> res = accountService.getAccountActivityLogsByCursor(id, actionType, cursor, size);
+        return ResponseEntity.ok(res);
+    }
+
     @DeleteMapping("/{id}" )
     @ApiMessage("Delete account by ID (Admin only)")
     @AdminOnly
@@ -165,6 +299,15 @@ public class AccountController {
         return ResponseEntity.ok(null);
     }
 
+    private static void prepareExport(HttpServletResponse response, String name, ExportFormat format) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "-" + Instant.now().getEpochSecond() + "." + format.getExtension())
+                .build()
+                .toString());
+    }
+
 
 
 
@@ -5,21 +5,30 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import vn.uit.lms.core.entity.Account;
 import vn.uit.lms.service.AuthService;
 import vn.uit.lms.service.EmailVerificationService;
 import vn.uit.lms.service.RefreshTokenService;
+import vn.uit.lms.service.availability.AccountAvailabilityService;
+import vn.uit.lms.service.profile.ProfileCache;
 import vn.uit.lms.shared.dto.request.*;
+import vn.uit.lms.shared.dto.response.AvailabilityResponse;
 import vn.uit.lms.shared.dto.response.MeResponse;
 import vn.uit.lms.shared.dto.response.RegisterResponse;
 import vn.uit.lms.shared.dto.response.ResLoginDTO;
+import vn.uit.lms.shared.dto.response.SessionResponse;
+import vn.uit.lms.shared.exception.InvalidRequestException;
 import vn.uit.lms.shared.mapper.AccountMapper;
 import vn.uit.lms.shared.util.annotation.ApiMessage;
 
+import java.util.List;
+
 /**
  * Authentication and authorization controller for user account operations.
  *
@@ -38,15 +47,18 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final EmailVerificationService emailVerificationService;
     private final RefreshTokenService refreshTokenService;
+    private final AccountAvailabilityService accountAvailabilityService;
 
     public AuthController(AuthService authService,
                           PasswordEncoder passwordEncoder,
                           EmailVerificationService emailVerificationService,
-                          RefreshTokenService refreshTokenService) {
+                          RefreshTokenService refreshTokenService,
+                          AccountAvailabilityService accountAvailabilityService) {
         this.authService = authService;
         this.passwordEncoder = passwordEncoder;
         this.emailVerificationService = emailVerificationService;
         this.refreshTokenService = refreshTokenService;
+        this.accountAvailabilityService = accountAvailabilityService;
     }
 
     /**
@@ -71,6 +83,27 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Check whether a username and/or email can still be registered, for live form validation.
+     *
+     * @param username username to check (optional)
+     * @param email email to check (optional)
+     * @return availability of each value that was supplied
+     */
+    @GetMapping("/availability")
+    @ApiMessage("Check username/email availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email
+    ) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            throw new InvalidRequestException("Provide a username or an email to check");
+        }
+        return ResponseEntity.ok(accountAvailabilityService.check(
+                username == null || username.isBlank() ? null : username,
+                email == null || email.isBlank() ? null : email));
+    }
+
     /**
      * Verify a user's email using a verification token sent to their email.
      *
@@ -139,6 +172,43 @@ public class AuthController {
         return ResponseEntity.ok(null);
     }
 
+    /**
+     * List the devices currently signed in to the user's account.
+     *
+     * @return live sessions, most recently used first
+     */
+    @GetMapping("/sessions")
+    @ApiMessage("Get active sessions of current user")
+    public ResponseEntity<List<SessionResponse>> getSessions() {
+        return ResponseEntity.ok(refreshTokenService.getCurrentSessions());
+    }
+
+    /**
+     * Sign one device out by revoking its session.
+     *
+     * @param id session id from the session list
+     * @return 200 OK if the session was revoked
+     */
+    @DeleteMapping("/sessions/{id}")
+    @ApiMessage("Revoke a session")
+    public ResponseEntity<Void> revokeSession(@PathVariable Long id) {
+        refreshTokenService.revokeSession(id);
+        return ResponseEntity.ok(null);
+    }
+
+    /**
+     * Sign the user out of every device.
+     *
+     * @return 200 OK once all sessions are revoked
+     */
+    @DeleteMapping("/sessions")
+    @ApiMessage("Revoke all sessions")
+    public ResponseEntity<Void> revokeAllSessions() {
+        int revoked = refreshTokenService.revokeAllSessions();
+        log.info("Revoked {} sessions of current user", revoked);
+        return ResponseEntity.ok(null);
+    }
+
     /**
      * Request password reset by email. Sends a password reset link to the user's email.
      *
@@ -175,14 +245,23 @@ public class AuthController {
 
     /**
      * Retrieve information about the currently logged-in user.
+     * <p>
+     * Served from the profile cache with a strong ETag; a matching {@code If-None-Match}
+     * gets {@code 304 Not Modified}.
+     * </p>
      *
      * @return user information of the currently authenticated account
      */
     @GetMapping("/me")
     @ApiMessage("Get current logged-in user info")
-    public ResponseEntity<MeResponse> getCurrentUserInfo() {
-        MeResponse userInfo = authService.getCurrentUserInfo();
-        return ResponseEntity.ok(userInfo);
+    public ResponseEntity<MeResponse> getCurrentUserInfo(WebRequest webRequest) {
+        ProfileCache.Snapshot snapshot = authService.getCurrentUserInfo();
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(snapshot.me());
     }
 
     /**
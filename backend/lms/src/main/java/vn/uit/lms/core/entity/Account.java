@@ -11,7 +11,9 @@ import vn.uit.lms.shared.entity.BaseEntity;
 import java.time.Instant;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_created_at_id", columnList = "created_at DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +27,13 @@ public class Account extends BaseEntity {
     @Column(length = 255, nullable = false, unique = true)
     private String email;
 
+    // Generated lower(username) / lower(email) columns used by case-insensitive filters
+    @Column(name = "username_lower", length = 150, insertable = false, updatable = false)
+    private String usernameLower;
+
+    @Column(name = "email_lower", length = 255, insertable = false, updatable = false)
+    private String emailLower;
+
     @Column(name = "password_hash", nullable = false)
     private String passwordHash;
 
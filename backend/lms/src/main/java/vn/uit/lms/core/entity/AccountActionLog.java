@@ -6,7 +6,9 @@ import vn.uit.lms.shared.constant.AccountActionType;
 import vn.uit.lms.shared.entity.BaseEntity;
 
 @Entity
-@Table(name = "account_action_log")
+@Table(name = "account_action_log", indexes = {
+        @Index(name = "idx_account_action_log_account_created", columnList = "account_id, created_at DESC, id DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
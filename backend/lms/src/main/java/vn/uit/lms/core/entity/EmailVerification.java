@@ -9,7 +9,9 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "email_verification")
+@Table(name = "email_verification", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_email_verification_account_type", columnNames = {"account_id", "token_type"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -7,7 +7,10 @@ import vn.uit.lms.shared.entity.BaseEntity;
 import java.time.Instant;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uq_refresh_tokens_account_device",
+                columnNames = {"account_id", "device_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,9 +22,17 @@ public class RefreshToken extends BaseEntity {
     @JoinColumn(name = "account_id", nullable = false)
     private Account account;
 
+    /** Fingerprint of the device; one session row per account and device. */
+    @Column(name = "device_id", nullable = false, length = 64)
+    private String deviceId;
+
     @Column(name = "token_hash", nullable = false, length = 512)
     private String tokenHash;
 
+    /** Hash of the token this one replaced; presenting it again means the token was stolen. */
+    @Column(name = "previous_token_hash", length = 512)
+    private String previousTokenHash;
+
     @Column(name = "device_info", length = 255)
     private String deviceInfo;
 
@@ -31,6 +42,9 @@ public class RefreshToken extends BaseEntity {
     @Column(name = "expires_at", nullable = false)
     private Instant expiresAt;
 
+    @Column(name = "last_used_at", nullable = false)
+    private Instant lastUsedAt;
+
     @Column(nullable = false)
     private boolean revoked = false;
 
@@ -1,15 +1,77 @@
 package vn.uit.lms.core.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import vn.uit.lms.core.entity.Account;
 import vn.uit.lms.core.entity.AccountActionLog;
 import vn.uit.lms.shared.constant.AccountActionType;
+import vn.uit.lms.shared.dto.response.log.AccountActionLogResponse;
+
+import java.time.Instant;
+import java.util.List;
 
 public interface AccountActionLogRepository extends JpaRepository<AccountActionLog, Long> {
     Page<AccountActionLog> findByTargetAccount(Account targetAccount, Pageable pg);
     Page<AccountActionLog> findByTargetAccountAndActionType(Account targetAccount, AccountActionType actionType, Pageable pg);
 
-}
+    /**
+     * Audit log page projected straight into response DTOs, performer username included,
+     * so no log entity or lazy association is ever loaded.
+     */
+    @Query(value = """
+            select new vn.uit.lms.shared.dto.response.log.AccountActionLogResponse(
+                l.id, l.actionType, l.reason, l.oldStatus, l.newStatus,
+                l.createdAt, l.updatedAt, p.username, l.ipAddress)
+            from AccountActionLog l join l.performedBy p
+            where l.targetAccount.id = :accountId
+              and (:actionType is null or l.actionType = :actionType)
+            """,
+            countQuery = """
+            select count(l) from AccountActionLog l
+            where l.targetAccount.id = :accountId
+              and (:actionType is null or l.actionType = :actionType)
+            """)
+    Page<AccountActionLogResponse> findLogResponses(@Param("accountId") Long accountId,
+                                                    @Param("actionType") AccountActionType actionType,
+                                                    Pageable pageable);
+
+    /**
+     * First keyset page of an account's audit log, newest first.
+     */
+    @Query("""
+            select new vn.uit.lms.shared.dto.response.log.AccountActionLogResponse(
+                l.id, l.actionType, l.reason, l.oldStatus, l.newStatus,
+                l.createdAt, l.updatedAt, p.username, l.ipAddress)
+            from AccountActionLog l join l.performedBy p
+            where l.targetAccount.id = :accountId
+              and (:actionType is null or l.actionType = :actionType)
+            order by l.createdAt desc, l.id desc
+            """)
+    List<AccountActionLogResponse> findFirstLogResponses(@Param("accountId") Long accountId,
+                                                         @Param("actionType") AccountActionType actionType,
+                                                         Limit limit);
 
+    /**
+     * Keyset page of an account's audit log strictly after the (createdAt, id) cursor, newest first.
+     */
+    @Query("""
+            select new vn.uit.lms.shared.dto.response.log.AccountActionLogResponse(
+                l.id, l.actionType, l.reason, l.oldStatus, l.newStatus,
+                l.createdAt, l.updatedAt, p.username, l.ipAddress)
+            from AccountActionLog l join l.performedBy p
+            where l.targetAccount.id = :accountId
+              and (:actionType is null or l.actionType = :actionType)
+              and (l.createdAt < :createdAt or (l.createdAt = :createdAt and l.id < :id))
+            order by l.createdAt desc, l.id desc
+            """)
+    List<AccountActionLogResponse> findLogResponsesBefore(@Param("accountId") Long accountId,
+                                                          @Param("actionType") AccountActionType actionType,
+                                                          @Param("createdAt") Instant createdAt,
+                                                          @Param("id") Long id,
+                                                          Limit limit);
+
+}
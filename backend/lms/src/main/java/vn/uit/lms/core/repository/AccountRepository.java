@@ -1,11 +1,21 @@
 package vn.uit.lms.core.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import vn.uit.lms.core.entity.Account;
+import vn.uit.lms.core.repository.projection.AccountSearchRow;
+import vn.uit.lms.shared.constant.AccountStatus;
 import vn.uit.lms.shared.constant.Role;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +28,50 @@ public interface AccountRepository extends JpaRepository<Account, Long>, JpaSpec
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 
+    /**
+     * Planner estimate of the accounts row count; -1 when the table has never been analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE relname = 'accounts'", nativeQuery = true)
+    Long estimateAccountCount();
+
+    /**
+     * Trigram search over the folded account search document (username, email, full name, code),
+     * ranked by word similarity. Served by the GIN index on account_search.document.
+     */
+    @Query(value = """
+            SELECT a.id AS accountId, a.username AS username, a.email AS email,
+                   a.role AS role, a.status AS status,
+                   COALESCE(s.full_name, t.full_name) AS fullName,
+                   COALESCE(s.student_code, t.teacher_code) AS code,
+                   CAST(word_similarity(lms_fold(:q), d.document) AS double precision) AS score
+            FROM account_search d
+                     JOIN accounts a ON a.id = d.account_id
+                     LEFT JOIN students s ON s.account_id = a.id
+                     LEFT JOIN teachers t ON t.account_id = a.id
+            WHERE lms_fold(:q) <% d.document
+            ORDER BY score DESC, a.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AccountSearchRow> searchAccounts(@Param("q") String query, @Param("limit") int limit);
+
+    /**
+     * Sets the {@code <%} match threshold for the current transaction only.
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    /**
+     * Loads and row-locks the given accounts so a bulk change can be validated in memory
+     * and then applied with a single UPDATE.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Account a SET a.status = :status, a.updatedAt = :now WHERE a.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("status") AccountStatus status,
+                           @Param("now") Instant now);
+
 }
@@ -1,14 +1,54 @@
 package vn.uit.lms.core.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import vn.uit.lms.core.entity.Account;
 import vn.uit.lms.core.entity.EmailVerification;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EmailVerificationRepository extends JpaRepository<EmailVerification, Long> {
 
     Optional<EmailVerification> findByTokenHash(String tokenHash);
+
+    /**
+     * Makes {@code tokenHash} the only live token of its type for the account, replacing (and so
+     * invalidating) the previous one in the same statement. The previous token is kept - and no row
+     * is returned - while it is unused and was issued after {@code reissueAfter}.
+     *
+     * @return the row id if a new token was stored, empty while the previous one is cooling down
+     */
+    @Query(value = """
+            INSERT INTO email_verification (account_id, token_type, token_hash, expires_at, is_used, created_at, updated_at)
+            VALUES (:accountId, :tokenType, :tokenHash, :expiresAt, false, now(), now())
+            ON CONFLICT (account_id, token_type) DO UPDATE
+                SET token_hash = EXCLUDED.token_hash,
+                    expires_at = EXCLUDED.expires_at,
+                    is_used    = false,
+                    updated_at = now()
+                WHERE email_verification.is_used OR email_verification.updated_at < :reissueAfter
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> upsertLiveToken(@Param("accountId") Long accountId,
+                               @Param("tokenType") String tokenType,
+                               @Param("tokenHash") String tokenHash,
+                               @Param("expiresAt") Instant expiresAt,
+                               @Param("reissueAfter") Instant reissueAfter);
+
+    /**
+     * Removes expired rows in one set-based statement, without loading them.
+     *
+     * @return the number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailVerification e WHERE e.expiresAt < :time")
+    int deleteAllByExpiresAtBefore(@Param("time") Instant time);
 }
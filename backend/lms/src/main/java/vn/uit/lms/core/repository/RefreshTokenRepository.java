@@ -2,20 +2,125 @@ package vn.uit.lms.core.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
-import vn.uit.lms.core.entity.Account;
 import vn.uit.lms.core.entity.RefreshToken;
+import vn.uit.lms.core.repository.projection.SessionRow;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long>, JpaSpecificationExecutor<RefreshToken> {
 
-    Optional<RefreshToken> findByAccountAndRevokedFalse(Account account);
     Optional<RefreshToken> findByTokenHash(String tokenHash);
 
+    Optional<RefreshToken> findByPreviousTokenHash(String previousTokenHash);
+
+    /**
+     * Starts (or restarts) the session of a device: inserts its row, or replaces the token of the
+     * existing row for the same account and device, in one statement.
+     *
+     * @return the session id
+     */
+    @Query(value = """
+            INSERT INTO refresh_tokens (account_id, device_id, token_hash, device_info, ip_address,
+                                        expires_at, last_used_at, revoked, created_at, updated_at, created_by)
+            VALUES (:accountId, :deviceId, :tokenHash, :deviceInfo, :ipAddress,
+                    :expiresAt, now(), false, now(), now(), :createdBy)
+            ON CONFLICT (account_id, device_id) DO UPDATE
+                SET token_hash          = EXCLUDED.token_hash,
+                    previous_token_hash = NULL,
+                    device_info         = EXCLUDED.device_info,
+                    ip_address          = EXCLUDED.ip_address,
+                    expires_at          = EXCLUDED.expires_at,
+                    last_used_at        = now(),
+                    revoked             = false,
+                    updated_at          = now()
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> upsertSession(@Param("accountId") Long accountId,
+                             @Param("deviceId") String deviceId,
+                             @Param("tokenHash") String tokenHash,
+                             @Param("deviceInfo") String deviceInfo,
+                             @Param("ipAddress") String ipAddress,
+                             @Param("expiresAt") Instant expiresAt,
+                             @Param("createdBy") String createdBy);
+
+    /**
+     * Swaps a live token for its successor, remembering the old hash for reuse detection.
+     * Concurrent refreshes with the same token cannot both succeed.
+     *
+     * @return the account id of the session, empty if the token is not live
+     */
+    @Query(value = """
+            UPDATE refresh_tokens
+            SET previous_token_hash = token_hash,
+                token_hash          = :newTokenHash,
+                ip_address          = :ipAddress,
+                expires_at          = :expiresAt,
+                last_used_at        = now(),
+                updated_at          = now()
+            WHERE token_hash = :tokenHash AND NOT revoked AND expires_at > now()
+            RETURNING account_id
+            """, nativeQuery = true)
+    List<Long> rotate(@Param("tokenHash") String tokenHash,
+                      @Param("newTokenHash") String newTokenHash,
+                      @Param("ipAddress") String ipAddress,
+                      @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Keeps the {@code maxSessions} most recently used live sessions of the account and deletes
+     * the rest (including revoked and expired rows).
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE account_id = :accountId
+              AND id NOT IN (SELECT id FROM refresh_tokens
+                             WHERE account_id = :accountId AND NOT revoked AND expires_at > now()
+                             ORDER BY last_used_at DESC
+                             LIMIT :maxSessions)
+            """, nativeQuery = true)
+    int evictLeastRecentlyUsed(@Param("accountId") Long accountId, @Param("maxSessions") int maxSessions);
+
+    @Query("""
+            SELECT r.id AS id, r.deviceInfo AS deviceInfo, r.ipAddress AS ipAddress,
+                   r.createdAt AS createdAt, r.lastUsedAt AS lastUsedAt, r.expiresAt AS expiresAt
+            FROM RefreshToken r
+            WHERE r.account.id = :accountId AND r.revoked = false AND r.expiresAt > :now
+            ORDER BY r.lastUsedAt DESC
+            """)
+    List<SessionRow> findActiveSessions(@Param("accountId") Long accountId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.tokenHash = :tokenHash AND r.revoked = false")
+    int revokeByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.id = :id AND r.account.id = :accountId AND r.revoked = false")
+    int revokeByIdAndAccountId(@Param("id") Long id, @Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.account.id = :accountId AND r.revoked = false")
+    int revokeAllByAccountId(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.account.id IN :accountIds AND r.revoked = false")
+    int revokeAllByAccountIdIn(@Param("accountIds") Collection<Long> accountIds);
+
+    /**
+     * Removes expired rows in one set-based statement, without loading them.
+     *
+     * @return the number of rows deleted
+     */
     @Transactional
-    void deleteAllByExpiresAtBefore(Instant time);
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :time")
+    int deleteAllByExpiresAtBefore(@Param("time") Instant time);
 }
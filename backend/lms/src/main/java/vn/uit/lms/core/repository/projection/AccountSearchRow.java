@@ -0,0 +1,15 @@
+package vn.uit.lms.core.repository.projection;
+
+/**
+ * Row returned by the trigram account search (native query projection).
+ */
+public interface AccountSearchRow {
+    Long getAccountId();
+    String getUsername();
+    String getEmail();
+    String getRole();
+    String getStatus();
+    String getFullName();
+    String getCode();
+    Double getScore();
+}
@@ -0,0 +1,15 @@
+package vn.uit.lms.core.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Live device session of an account (JPQL projection).
+ */
+public interface SessionRow {
+    Long getId();
+    String getDeviceInfo();
+    String getIpAddress();
+    Instant getCreatedAt();
+    Instant getLastUsedAt();
+    Instant getExpiresAt();
+}
@@ -1,55 +1,114 @@
 package vn.uit.lms.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import vn.uit.lms.core.entity.Account;
-import vn.uit.lms.core.entity.AccountActionLog;
+import org.springframework.transaction.annotation.Transactional;
 import vn.uit.lms.core.repository.AccountActionLogRepository;
 import vn.uit.lms.core.repository.AccountRepository;
+import vn.uit.lms.service.audit.AuditLogRecord;
+import vn.uit.lms.service.audit.AuditLogWriter;
 import vn.uit.lms.shared.constant.AccountActionType;
+import vn.uit.lms.shared.dto.CursorPageResponse;
+import vn.uit.lms.shared.dto.response.log.AccountActionLogResponse;
 import vn.uit.lms.shared.exception.ResourceNotFoundException;
+import vn.uit.lms.shared.util.CursorCodec;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class AccountActionLogService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final AccountActionLogRepository repo;
     private final AccountRepository accountRepository;
+    private final AuditLogWriter auditLogWriter;
+
+    /**
+     * Records an account action through {@link AuditLogWriter}; depending on {@code app.audit.mode}
+     * the row is inserted now, or queued and batch-inserted shortly after (the caller's commit).
+     */
+    public void logAction(Long targetAccountId,
+                          AccountActionType type,
+                          String reason,
+                          Long performedById,
+                          String ipAddress,
+                          String oldStatus,
+                          String newStatus) {
+
+        auditLogWriter.write(AuditLogRecord.of(
+                targetAccountId,
+                type,
+                reason,
+                performedById,
+                ipAddress,
+                oldStatus,
+                newStatus
+        ));
+    }
+
+    /**
+     * Records several actions at once; they are inserted as a single JDBC batch.
+     */
+    public void logActions(List<AuditLogRecord> records) {
+        auditLogWriter.writeAll(records);
+    }
 
-    public AccountActionLog logAction(Long targetAccountId,
-                                      AccountActionType type,
-                                      String reason,
-                                      Long performedById,
-                                      String ipAddress,
-                                      String oldStatus,
-                                      String newStatus) {
-
-        Account target = accountRepository.getReferenceById(targetAccountId);
-        Account performer = accountRepository.getReferenceById(performedById);
-
-        AccountActionLog log = AccountActionLog.builder()
-                .targetAccount(target)
-                .actionType(type)
-                .reason(reason)
-                .performedBy(performer)
-                .ipAddress(ipAddress)
-                .oldStatus(oldStatus)
-                .newStatus(newStatus)
-                .build();
-
-        return repo.save(log);
+    /**
+     * Audit log page for an account, served by a single projection query (plus its count).
+     */
+    @Transactional(readOnly = true)
+    public Page<AccountActionLogResponse> getLogsForAccount(Long accountId, AccountActionType actionType, Pageable pageable){
+        Page<AccountActionLogResponse> page = repo.findLogResponses(accountId, actionType, pageable);
+        if (page.isEmpty()) {
+            ensureAccountExists(accountId);
+        }
+        return page;
     }
 
-    public Page<AccountActionLog> getLogsForAccount(Long accountId, AccountActionType actionType, Pageable pageable){
-        Account accountDB = accountRepository.findById(accountId).orElseThrow(
-                () -> new ResourceNotFoundException("Account with id " + accountId + " not found")
-        );
+    /**
+     * Keyset page of an account's audit log ordered by (createdAt, id) newest first.
+     * Issues one statement per page (two when the first page is empty, to tell a missing
+     * account apart from an account without logs).
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AccountActionLogResponse> getLogsForAccountByCursor(Long accountId,
+                                                                                  AccountActionType actionType,
+                                                                                  String cursor,
+                                                                                  int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
 
-        if(actionType != null){
-            return repo.findByTargetAccountAndActionType(accountDB, actionType, pageable);
+        List<AccountActionLogResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repo.findFirstLogResponses(accountId, actionType, limit);
+            if (rows.isEmpty()) {
+                ensureAccountExists(accountId);
+            }
         } else {
-            return repo.findByTargetAccount(accountDB, pageable);
+            CursorCodec.Cursor c = CursorCodec.decode(cursor);
+            rows = repo.findLogResponsesBefore(accountId, actionType, c.getCreatedAt(), c.getId(), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<AccountActionLogResponse> items = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            AccountActionLogResponse last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return new CursorPageResponse<>(items, pageSize, nextCursor, hasNext, null, false);
+    }
+
+    private void ensureAccountExists(Long accountId) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new ResourceNotFoundException("Account with id " + accountId + " not found");
         }
     }
 }
@@ -6,9 +6,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import vn.uit.lms.core.entity.Account;
 import vn.uit.lms.core.entity.AccountActionLog;
@@ -17,14 +20,22 @@ import vn.uit.lms.core.entity.Teacher;
 import vn.uit.lms.core.repository.AccountRepository;
 import vn.uit.lms.core.repository.StudentRepository;
 import vn.uit.lms.core.repository.TeacherRepository;
+import vn.uit.lms.service.audit.AuditLogRecord;
+import vn.uit.lms.service.profile.ProfileCache;
+import vn.uit.lms.service.query.QueryGuard;
+import vn.uit.lms.service.query.QueryPolicies;
 import vn.uit.lms.shared.constant.AccountActionType;
 import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.CountMode;
 import vn.uit.lms.shared.constant.Role;
 import vn.uit.lms.shared.constant.SecurityConstants;
+import vn.uit.lms.shared.dto.CursorPageResponse;
 import vn.uit.lms.shared.dto.PageResponse;
 import vn.uit.lms.shared.dto.request.account.UpdateProfileRequest;
 import vn.uit.lms.shared.dto.response.account.AccountProfileResponse;
 import vn.uit.lms.shared.dto.response.account.AccountResponse;
+import vn.uit.lms.shared.dto.response.account.AccountSearchResponse;
+import vn.uit.lms.shared.dto.response.account.BulkStatusChangeResponse;
 import vn.uit.lms.shared.dto.response.account.UploadAvatarResponse;
 import vn.uit.lms.shared.dto.response.log.AccountActionLogResponse;
 import vn.uit.lms.shared.entity.PersonBase;
@@ -34,10 +45,16 @@ import vn.uit.lms.shared.mapper.LogMapper;
 import vn.uit.lms.shared.mapper.StudentMapper;
 import vn.uit.lms.shared.mapper.TeacherMapper;
 import vn.uit.lms.shared.util.CloudinaryUtils;
+import vn.uit.lms.shared.util.CursorCodec;
 import vn.uit.lms.shared.util.SecurityUtils;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -53,19 +70,36 @@ public class AccountService {
     private final CloudinaryUtils cloudinaryUtils;
     private final AccountActionLogService accountActionLogService;
     private final MailService mailService;
+    private final QueryGuard queryGuard;
+    private final SessionRevocationService sessionRevocationService;
+    private final ProfileCache profileCache;
 
     private static final Set<String> ALLOWED_TYPES = Set.of("image/jpeg", "image/png", "image/webp");
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final int MIN_SEARCH_LENGTH = 2;
+
+    private static final int MAX_SEARCH_RESULTS = 50;
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     @Value("${app.avatar.max-size-bytes}")
     private long maxSizeBytes;
 
+    @Value("${app.search.similarity-threshold:0.3}")
+    private double searchSimilarityThreshold;
+
     public AccountService(AccountRepository accountRepository,
                           StudentRepository studentRepository,
                           TeacherRepository teacherRepository,
                           CloudinaryStorageService cloudinaryStorageService,
                           CloudinaryUtils cloudinaryUtils,
                           AccountActionLogService accountActionLogService,
-                          MailService mailService) {
+                          MailService mailService,
+                          QueryGuard queryGuard,
+                          SessionRevocationService sessionRevocationService,
+                          ProfileCache profileCache) {
         this.accountActionLogService = accountActionLogService;
         this.accountRepository = accountRepository;
         this.studentRepository = studentRepository;
@@ -73,22 +107,19 @@ public class AccountService {
         this.cloudinaryStorageService = cloudinaryStorageService;
         this.cloudinaryUtils = cloudinaryUtils;
         this.mailService = mailService;
+        this.queryGuard = queryGuard;
+        this.sessionRevocationService = sessionRevocationService;
+        this.profileCache = profileCache;
     }
 
     /**
      * Retrieve the current logged-in user's profile information.
      */
-    public AccountProfileResponse getProfile() {
-        String email = SecurityUtils.getCurrentUserLogin()
-                .filter(e -> !SecurityConstants.ANONYMOUS_USER.equals(e))
+    public ProfileCache.Snapshot getProfile() {
+        Long accountId = SecurityUtils.getCurrentUserId()
                 .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
 
-        log.info("Fetching profile for user: {}", email);
-
-        Account account = accountRepository.findOneByEmailIgnoreCase(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-
-        return getAccountProfile(account);
+        return profileCache.get(accountId);
     }
 
     /**
@@ -134,6 +165,7 @@ public class AccountService {
         account.setAvatarUrl(uploadResult.getUrl());
         account.setAvatarPublicId(uploadResult.getPublicId());
         accountRepository.save(account);
+        profileCache.evict(userId);
 
         // Prepare response
         UploadAvatarResponse response = new UploadAvatarResponse();
@@ -171,6 +203,7 @@ public class AccountService {
             }
         };
 
+        profileCache.evict(account.getId());
         log.info("Profile updated successfully for user: {}", email);
         return AccountMapper.toProfileResponse(account, profile);
     }
@@ -217,8 +250,12 @@ public class AccountService {
         person.setPhone(req.getPhone());
     }
 
-    public PageResponse<AccountResponse> getAllAccounts(Specification<Account> spec, Pageable pageable) {
-        Page<Account> page = accountRepository.findAll(spec, pageable);
+    public PageResponse<AccountResponse> getAllAccounts(String filter, Pageable pageable) {
+        Specification<Account> spec = queryGuard.toSpecification(QueryPolicies.ACCOUNTS, filter);
+        queryGuard.checkSort(QueryPolicies.ACCOUNTS, pageable.getSort());
+
+        Page<Account> page = queryGuard.execute(accountRepository, spec, pageable.getSort(),
+                () -> accountRepository.findAll(spec, pageable));
 
         List<AccountResponse> items = page.getContent()
                 .stream()
@@ -236,6 +273,104 @@ public class AccountService {
         );
     }
 
+    /**
+     * Keyset listing of accounts ordered by (createdAt, id) descending.
+     * <p>
+     * Avoids the OFFSET scan of {@link #getAllAccounts} by seeking past the last row of the
+     * previous page, and only counts rows when asked to.
+     * </p>
+     *
+     * @param filter    optional springfilter expression, checked by the {@link QueryGuard}
+     * @param cursor    opaque token from a previous page, or {@code null} for the first page
+     * @param size      page size (capped at {@value #MAX_CURSOR_PAGE_SIZE})
+     * @param countMode how to compute {@code totalItems}
+     */
+    public CursorPageResponse<AccountResponse> getAccountsByCursor(String filter,
+                                                                   String cursor,
+                                                                   int size,
+                                                                   CountMode countMode) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        boolean filtered = filter != null && !filter.isBlank();
+
+        Specification<Account> spec = queryGuard.toSpecification(QueryPolicies.ACCOUNTS, filter);
+        Specification<Account> where = cursor != null && !cursor.isBlank()
+                ? spec.and(seekAfter(CursorCodec.decode(cursor)))
+                : spec;
+
+        // Fetch one extra row to know whether a next page exists without counting
+        List<Account> rows = queryGuard.execute(accountRepository, where, KEYSET_SORT,
+                () -> accountRepository.findBy(where, q -> q.sortBy(KEYSET_SORT).limit(pageSize + 1).all()));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Account> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Account last = pageRows.get(pageRows.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+
+        Long total = null;
+        boolean estimated = false;
+        switch (countMode != null ? countMode : CountMode.NONE) {
+            case EXACT -> total = queryGuard.execute(accountRepository, spec, Sort.unsorted(),
+                    () -> accountRepository.count(spec));
+            case ESTIMATED -> {
+                // reltuples describes the whole table, so it is meaningless once a filter is applied
+                if (!filtered) {
+                    Long estimate = accountRepository.estimateAccountCount();
+                    if (estimate != null && estimate >= 0) {
+                        total = estimate;
+                        estimated = true;
+                    }
+                }
+            }
+            case NONE -> { }
+        }
+
+        List<AccountResponse> items = pageRows.stream()
+                .map(AccountMapper::toAccountResponse)
+                .toList();
+
+        return new CursorPageResponse<>(items, pageSize, nextCursor, hasNext, total, estimated);
+    }
+
+    /**
+     * Fuzzy admin search by fragment of username, email, full name or student/teacher code.
+     * <p>
+     * Matching is diacritic- and case-insensitive (the query is folded by the same
+     * {@code lms_fold} SQL function as the indexed document) and results are ranked by
+     * trigram word similarity.
+     * </p>
+     *
+     * @param query search text, at least {@value #MIN_SEARCH_LENGTH} characters
+     * @param limit maximum number of results (capped at {@value #MAX_SEARCH_RESULTS})
+     */
+    @Transactional(readOnly = true)
+    public List<AccountSearchResponse> searchAccounts(String query, int limit) {
+        String q = query == null ? "" : query.trim();
+        if (q.length() < MIN_SEARCH_LENGTH) {
+            throw new InvalidRequestException("Search query must be at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+
+        accountRepository.setWordSimilarityThreshold(String.valueOf(searchSimilarityThreshold));
+
+        return accountRepository.searchAccounts(q, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)))
+                .stream()
+                .map(AccountMapper::toSearchResponse)
+                .toList();
+    }
+
+    private static Specification<Account> seekAfter(CursorCodec.Cursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<Instant>get("createdAt"), cursor.getCreatedAt()),
+                cb.and(
+                        cb.equal(root.<Instant>get("createdAt"), cursor.getCreatedAt()),
+                        cb.lessThan(root.<Long>get("id"), cursor.getId())
+                )
+        );
+    }
+
     public AccountProfileResponse getAccountById(Long id) {
         Account account = accountRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
@@ -300,6 +435,7 @@ public class AccountService {
 
         teacherRepository.save(teacher);
         accountRepository.save(account);
+        profileCache.evict(account.getId());
 
 
         accountActionLogService.logAction(
@@ -360,6 +496,8 @@ public class AccountService {
 
         teacherRepository.save(teacher);
         accountRepository.save(account);
+        profileCache.evict(account.getId());
+        sessionRevocationService.revokeAll(account.getId(), SessionRevocationService.Reason.STATUS_CHANGED);
 
         accountActionLogService.logAction(
                 account.getId(),
@@ -381,15 +519,10 @@ public class AccountService {
     }
 
     public PageResponse<AccountActionLogResponse> getAccountActivityLogs(Long accountId, AccountActionType actionType,Pageable pageable){
-        Page<AccountActionLog> page = accountActionLogService.getLogsForAccount(accountId, actionType, pageable);
-
-        List<AccountActionLogResponse> items = page.getContent()
-                .stream()
-                .map(LogMapper::toAccountActionLogResponse)
-                .toList();
+        Page<AccountActionLogResponse> page = accountActionLogService.getLogsForAccount(accountId, actionType, pageable);
 
         return new PageResponse<>(
-                items,
+                page.getContent(),
                 page.getNumber(),
                 page.getSize(),
                 page.getTotalElements(),
@@ -399,6 +532,13 @@ public class AccountService {
         );
     }
 
+    public CursorPageResponse<AccountActionLogResponse> getAccountActivityLogsByCursor(Long accountId,
+                                                                                       AccountActionType actionType,
+                                                                                       String cursor,
+                                                                                       int size) {
+        return accountActionLogService.getLogsForAccountByCursor(accountId, actionType, cursor, size);
+    }
+
     @Transactional
     public AccountProfileResponse changeAccountStatus(Long accountId, AccountStatus newStatus, String reason, String ip){
         log.info("Changing account status for accountId={}, newStatus={}, ip={}", accountId, newStatus, ip);
@@ -436,6 +576,10 @@ public class AccountService {
 
         account.setStatus(newStatus);
         accountRepository.save(account);
+        profileCache.evict(account.getId());
+        if (newStatus != AccountStatus.ACTIVE) {
+            sessionRevocationService.revokeAll(account.getId(), SessionRevocationService.Reason.STATUS_CHANGED);
+        }
 
         AccountActionType actionType = LogMapper.mapStatusToAction(newStatus, oldStatus);
 
@@ -458,6 +602,118 @@ public class AccountService {
         return response;
     }
 
+    /**
+     * Change the status of many accounts in one transaction.
+     * <p>
+     * Targets are loaded (and row-locked) with one query and every transition is validated in memory
+     * with the same rules as {@link #changeAccountStatus}; the accepted ones are applied with a single
+     * UPDATE, audited as one batch and notified by email after commit. Teacher approval and rejection
+     * touch the teacher profile and are refused here - use the dedicated endpoints.
+     * </p>
+     *
+     * @return one result per distinct requested id, in request order
+     */
+    @Transactional
+    public BulkStatusChangeResponse bulkChangeAccountStatus(List<Long> accountIds, AccountStatus newStatus, String reason, String ip) {
+        log.info("Bulk status change of {} accounts to {}, ip={}", accountIds.size(), newStatus, ip);
+
+        if (newStatus == AccountStatus.PENDING_EMAIL) {
+            throw new InvalidRequestException("Cannot change status to PENDING_EMAIL");
+        }
+
+        Long adminId = SecurityUtils.getCurrentUserId()
+                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
+
+        Account adminAccount = accountRepository.findById(adminId)
+                .orElseThrow(() -> new ResourceNotFoundException("Admin account not found"));
+
+        Set<Long> ids = new LinkedHashSet<>(accountIds);
+        Map<Long, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(ids)) {
+            accounts.put(account.getId(), account);
+        }
+
+        String auditReason = reason != null ? reason : "Account status changed to: " + newStatus + " by admin: " + adminAccount.getUsername();
+        List<BulkStatusChangeResponse.Result> results = new ArrayList<>(ids.size());
+        List<Long> changedIds = new ArrayList<>();
+        List<AuditLogRecord> auditRecords = new ArrayList<>();
+        Map<AccountActionType, List<Long>> notifications = new EnumMap<>(AccountActionType.class);
+
+        for (Long id : ids) {
+            Account account = accounts.get(id);
+            String refusal = bulkRefusal(account, newStatus);
+            if (refusal != null) {
+                results.add(BulkStatusChangeResponse.Result.builder()
+                        .accountId(id)
+                        .success(false)
+                        .oldStatus(account != null ? account.getStatus() : null)
+                        .message(refusal)
+                        .build());
+                continue;
+            }
+
+            AccountStatus oldStatus = account.getStatus();
+            AccountActionType actionType = LogMapper.mapStatusToAction(newStatus, oldStatus);
+
+            changedIds.add(id);
+            auditRecords.add(AuditLogRecord.of(id, actionType, auditReason, adminId, ip, oldStatus.name(), newStatus.name()));
+            notifications.computeIfAbsent(actionType, k -> new ArrayList<>()).add(id);
+            results.add(BulkStatusChangeResponse.Result.builder()
+                    .accountId(id)
+                    .success(true)
+                    .oldStatus(oldStatus)
+                    .actionType(actionType)
+                    .build());
+        }
+
+        if (!changedIds.isEmpty()) {
+            // clears the persistence context: the loaded accounts are detached and keep the old status
+            accountRepository.updateStatusByIdIn(changedIds, newStatus, Instant.now());
+            profileCache.evict(changedIds);
+            if (newStatus != AccountStatus.ACTIVE) {
+                sessionRevocationService.revokeAll(changedIds, SessionRevocationService.Reason.STATUS_CHANGED);
+            }
+            accountActionLogService.logActions(auditRecords);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifications.forEach((actionType, targetIds) ->
+                            mailService.sendAccountActionEmails(targetIds, newStatus, actionType, reason));
+                }
+            });
+        }
+
+        log.info("Bulk status change to {} by admin={}: {} changed, {} refused",
+                newStatus, adminAccount.getUsername(), changedIds.size(), ids.size() - changedIds.size());
+
+        return BulkStatusChangeResponse.builder()
+                .status(newStatus)
+                .requested(ids.size())
+                .changed(changedIds.size())
+                .failed(ids.size() - changedIds.size())
+                .results(results)
+                .build();
+    }
+
+    private static String bulkRefusal(Account account, AccountStatus newStatus) {
+        if (account == null) {
+            return "Account not found";
+        }
+        if (account.getRole() == Role.ADMIN) {
+            return "Cannot change status of ADMIN accounts";
+        }
+        if (account.getStatus() == newStatus) {
+            return "Account is already in status: " + newStatus;
+        }
+        if (account.getRole() == Role.TEACHER
+                && (newStatus == AccountStatus.REJECTED
+                || (newStatus == AccountStatus.ACTIVE && account.getStatus() == AccountStatus.PENDING_APPROVAL))) {
+            return "Teacher approval and rejection must use the teacher endpoints";
+        }
+        return null;
+    }
+
+    @Transactional
     public void deleteAccountById(Long id, String ipAddress) {
         log.info("Deleting account id={}, ip={}", id, ipAddress);
 
@@ -473,6 +729,8 @@ public class AccountService {
         AccountStatus oldStatus = account.getStatus();
         account.setStatus(AccountStatus.DEACTIVATED);
         account.setDeletedAt(Instant.now());
+        profileCache.evict(account.getId());
+        sessionRevocationService.revokeAll(account.getId(), SessionRevocationService.Reason.DEACTIVATED);
 
         accountActionLogService.logAction(
                 account.getId(),
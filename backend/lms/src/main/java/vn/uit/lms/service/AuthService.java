@@ -1,9 +1,14 @@
 package vn.uit.lms.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AuthorizationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
@@ -14,22 +19,30 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.uit.lms.core.entity.*;
 import vn.uit.lms.core.repository.*;
+import vn.uit.lms.service.availability.AccountAvailabilityService;
+import vn.uit.lms.service.profile.ProfileCache;
 import vn.uit.lms.shared.constant.AccountStatus;
 import vn.uit.lms.shared.constant.Role;
 import vn.uit.lms.shared.constant.SecurityConstants;
 import vn.uit.lms.shared.constant.TokenType;
 import vn.uit.lms.shared.dto.request.ChangePasswordDTO;
 import vn.uit.lms.shared.dto.request.ReqLoginDTO;
-import vn.uit.lms.shared.dto.response.MeResponse;
 import vn.uit.lms.shared.dto.response.ResLoginDTO;
 import vn.uit.lms.shared.exception.*;
+import vn.uit.lms.shared.jfr.LoginEvent;
 import vn.uit.lms.shared.mapper.AccountMapper;
 import vn.uit.lms.shared.util.SecurityUtils;
 import vn.uit.lms.shared.util.TokenHashUtil;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service class for managing user accounts, authentication, and registration.
@@ -48,11 +61,26 @@ public class AuthService {
     private final SecurityUtils securityUtils;
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final SessionRevocationService sessionRevocationService;
     private final PasswordEncoder passwordEncoder;
+    private final AccountAvailabilityService accountAvailabilityService;
+    private final ProfileCache profileCache;
+    private final Map<LoginOutcome, Timer> loginTimers = new EnumMap<>(LoginOutcome.class);
+
+    private enum LoginOutcome {
+        SUCCESS, BAD_CREDENTIALS, NOT_ACTIVATED, LOCKED, REJECTED, ERROR;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
 
     private static final Logger log = LoggerFactory.getLogger(AuthService.class);
 
+    private static final long TOKEN_TTL_MINUTES = 30;
+
+    @Value("${app.token.resend-cooldown-seconds:60}")
+    private long tokenResendCooldownSeconds;
+
 
     /**
      * Constructs an {@code AuthService} with all required dependencies.
@@ -64,8 +92,12 @@ public class AuthService {
                        SecurityUtils securityUtils,
                        StudentRepository studentRepository,
                        TeacherRepository teacherRepository,
-                       RefreshTokenRepository refreshTokenRepository,
-                       PasswordEncoder passwordEncoder) {
+                       RefreshTokenService refreshTokenService,
+                       SessionRevocationService sessionRevocationService,
+                       PasswordEncoder passwordEncoder,
+                       AccountAvailabilityService accountAvailabilityService,
+                       ProfileCache profileCache,
+                       MeterRegistry meterRegistry) {
         this.accountRepository = accountRepository;
         this.emailService = emailService;
         this.emailVerificationRepository = emailVerificationRepository;
@@ -73,8 +105,17 @@ public class AuthService {
         this.securityUtils = securityUtils;
         this.studentRepository = studentRepository;
         this.teacherRepository = teacherRepository;
-        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.sessionRevocationService = sessionRevocationService;
         this.passwordEncoder = passwordEncoder;
+        this.accountAvailabilityService = accountAvailabilityService;
+        this.profileCache = profileCache;
+        for (LoginOutcome outcome : LoginOutcome.values()) {
+            loginTimers.put(outcome, Timer.builder("lms.auth.login")
+                    .tag("outcome", outcome.tag)
+                    .description("Login attempts by outcome")
+                    .register(meterRegistry));
+        }
     }
 
     /**
@@ -111,24 +152,13 @@ public class AuthService {
 
         account.setStatus(AccountStatus.PENDING_EMAIL);
 
-        Account saved = accountRepository.save(account);
-
-        String rawToken = UUID.randomUUID().toString();
-        Instant expiresAt = Instant.now().plus(30, ChronoUnit.MINUTES);
-        String hashedToken = TokenHashUtil.hashToken(rawToken);
-
-        EmailVerification verification = EmailVerification.builder()
-                .account(saved)
-                .tokenHash(hashedToken)
-                .tokenType(TokenType.VERIFY_EMAIL)
-                .expiresAt(expiresAt)
-                .isUsed(false)
-                .build();
-
-        emailVerificationRepository.save(verification);
+        // Flush so the token upsert below can reference the new row
+        Account saved = accountRepository.saveAndFlush(account);
+        accountAvailabilityService.recordAccount(saved.getUsername(), saved.getEmail());
 
         // Send activation email
-        emailService.sendActivationEmail(saved, rawToken);
+        issueToken(saved, TokenType.VERIFY_EMAIL)
+                .ifPresent(rawToken -> emailService.sendActivationEmail(saved, rawToken));
 
         return saved;
     }
@@ -143,6 +173,7 @@ public class AuthService {
         if (existingAccount.getStatus() == AccountStatus.PENDING_EMAIL) {
             accountRepository.delete(existingAccount);
             accountRepository.flush();
+            accountAvailabilityService.recordRemoval();
             return true;
         }
         return false;
@@ -153,7 +184,7 @@ public class AuthService {
      * <p>
      * - Authenticates credentials via Spring Security.
      * - Builds response with account info and tokens.
-     * - Stores hashed refresh token in database.
+     * - Stores the hashed refresh token on the device's session.
      * </p>
      *
      * @param reqLoginDTO the login request containing credentials and device info
@@ -162,6 +193,45 @@ public class AuthService {
      * @throws UserNotActivatedException if the account is not yet activated
      */
     public ResLoginDTO login(ReqLoginDTO reqLoginDTO) {
+        long start = System.nanoTime();
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        LoginOutcome outcome = LoginOutcome.ERROR;
+        try {
+            ResLoginDTO resLoginDTO = authenticateAndIssueTokens(reqLoginDTO, event);
+            outcome = LoginOutcome.SUCCESS;
+            return resLoginDTO;
+        } catch (RuntimeException e) {
+            outcome = loginFailureReason(e);
+            throw e;
+        } finally {
+            loginTimers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome.tag;
+                event.commit();
+            }
+        }
+    }
+
+    private static LoginOutcome loginFailureReason(RuntimeException e) {
+        if (e instanceof BadCredentialsException) {
+            return LoginOutcome.BAD_CREDENTIALS;
+        }
+        if (e instanceof UserNotActivatedException || e instanceof DisabledException) {
+            return LoginOutcome.NOT_ACTIVATED;
+        }
+        if (e instanceof LockedException) {
+            return LoginOutcome.LOCKED;
+        }
+        if (e instanceof AuthenticationException) {
+            return LoginOutcome.REJECTED;
+        }
+        return LoginOutcome.ERROR;
+    }
+
+    private ResLoginDTO authenticateAndIssueTokens(ReqLoginDTO reqLoginDTO, LoginEvent event) {
+        long phaseStart = System.nanoTime();
 
         UsernamePasswordAuthenticationToken authenticationToken =
                 new UsernamePasswordAuthenticationToken(reqLoginDTO.getLogin(), reqLoginDTO.getPassword());
@@ -170,6 +240,9 @@ public class AuthService {
 
         // Set the authentication in the security context
         SecurityContextHolder.getContext().setAuthentication(authentication);
+        long phaseEnd = System.nanoTime();
+        event.authentication = phaseEnd - phaseStart;
+        phaseStart = phaseEnd;
 
         ResLoginDTO resLoginDTO = new ResLoginDTO();
         String email = authentication.getName();
@@ -177,17 +250,20 @@ public class AuthService {
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
 
         // Map account to response DTO depending on role
+        Long profileId = null;
         switch (accountDB.getRole()) {
             case STUDENT -> {
                 Student student = studentRepository.findByAccount(accountDB)
                         .orElseThrow(() -> new UserNotActivatedException("Account not activated"));
                 resLoginDTO = AccountMapper.studentToResLoginDTO(student);
+                profileId = student.getId();
             }
 
             case TEACHER -> {
                 Teacher teacher = teacherRepository.findByAccount(accountDB)
                         .orElseThrow(() -> new UserNotActivatedException("Account not activated"));
                 resLoginDTO = AccountMapper.teacherToResLoginDTO(teacher);
+                profileId = teacher.getId();
             }
 
             case ADMIN -> {
@@ -196,36 +272,32 @@ public class AuthService {
 
             default -> throw new IllegalStateException("Unexpected role: " + accountDB.getRole());
         }
-
+        event.role = accountDB.getRole().name();
+        phaseEnd = System.nanoTime();
+        event.profileLookup = phaseEnd - phaseStart;
+        phaseStart = phaseEnd;
 
         // Generate access token
-        String accessToken = securityUtils.createAccessToken(authentication.getName(), resLoginDTO);
+        String accessToken = securityUtils.createAccessToken(resLoginDTO.getUser(), profileId);
         resLoginDTO.setAccessToken(accessToken);
         Instant now = Instant.now();
         resLoginDTO.setAccessTokenExpiresAt(now.plus(securityUtils.getAccessTokenExpiration(), ChronoUnit.SECONDS));
+        phaseEnd = System.nanoTime();
+        event.accessToken = phaseEnd - phaseStart;
+        phaseStart = phaseEnd;
 
-        // Generate and save refresh token
-        String rawRefreshToken = securityUtils.createRefreshToken(accountDB.getEmail());
-        String hashedRefreshToken = TokenHashUtil.hashToken(rawRefreshToken);
-
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setAccount(accountDB);
-        refreshToken.setTokenHash(hashedRefreshToken);
-        refreshToken.setIpAddress(reqLoginDTO.getIpAddress());
-        refreshToken.setDeviceInfo(reqLoginDTO.getDeviceInfo()!=null? reqLoginDTO.getDeviceInfo() : "Unknown device");
-        refreshToken.setExpiresAt(now.plus(securityUtils.getRefreshTokenExpiration(), ChronoUnit.SECONDS));
-
-        refreshTokenRepository.save(refreshToken);
-
-        resLoginDTO.setRefreshToken(rawRefreshToken);
-        resLoginDTO.setRefreshTokenExpiresAt(refreshToken.getExpiresAt());
+        // Generate the refresh token on this device's session
+        refreshTokenService.startSession(accountDB, reqLoginDTO, resLoginDTO);
+        event.session = System.nanoTime() - phaseStart;
 
         accountDB.setLastLoginAt(Instant.now());
         accountRepository.save(accountDB);
+        profileCache.evict(accountDB.getId());
 
         return resLoginDTO;
     }
 
+    @Transactional
     public void forgotPassword(String email) {
 
         Account accountDB = this.accountRepository.findByEmail(email)
@@ -234,22 +306,35 @@ public class AuthService {
                     return new ResourceNotFoundException("User not found with email: " + email);
                 });
 
-        String rawToken = UUID.randomUUID().toString();
-        Instant expiresAt = Instant.now().plus(30, ChronoUnit.MINUTES);
-        String hashedToken = TokenHashUtil.hashToken(rawToken);
+        // Send reset password email, at most once per cooldown window
+        issueToken(accountDB, TokenType.RESET_PASSWORD)
+                .ifPresentOrElse(
+                        rawToken -> emailService.sendPasswordResetMail(accountDB, rawToken),
+                        () -> log.info("Reset token for account id={} is cooling down, not re-sent", accountDB.getId()));
+    }
 
-        EmailVerification verification = EmailVerification.builder()
-                .account(accountDB)
-                .tokenHash(hashedToken)
-                .tokenType(TokenType.RESET_PASSWORD)
-                .expiresAt(expiresAt)
-                .isUsed(false)
-                .build();
+    /**
+     * Issues a fresh token of the given type for the account, replacing its previous one.
+     * <p>
+     * Each account keeps at most one token per {@link TokenType}. While the previous token is unused
+     * and younger than {@code app.token.resend-cooldown-seconds}, nothing is written and the caller
+     * should not send another email.
+     * </p>
+     *
+     * @return the raw token to email, or empty during the cooldown
+     */
+    private Optional<String> issueToken(Account account, TokenType tokenType) {
+        String rawToken = UUID.randomUUID().toString();
+        Instant now = Instant.now();
 
-        emailVerificationRepository.save(verification);
+        List<Long> issued = emailVerificationRepository.upsertLiveToken(
+                account.getId(),
+                tokenType.name(),
+                TokenHashUtil.hashToken(rawToken),
+                now.plus(TOKEN_TTL_MINUTES, ChronoUnit.MINUTES),
+                now.minusSeconds(tokenResendCooldownSeconds));
 
-        // Send reset password email
-        emailService.sendPasswordResetMail(accountDB, rawToken);
+        return issued.isEmpty() ? Optional.empty() : Optional.of(rawToken);
     }
 
     @Transactional
@@ -286,9 +371,10 @@ public class AuthService {
         Account account = verification.getAccount();
         log.debug("Resetting password for account id={}, role={}", account.getId(), account.getRole());
 
-        // Update password
+        // Update password and sign out every device
         account.setPasswordHash(passwordEncoder.encode(newPassword));
         accountRepository.save(account);
+        sessionRevocationService.revokeAll(account.getId(), SessionRevocationService.Reason.PASSWORD_RESET);
 
         // Mark token as used
         verification.setUsed(true);
@@ -298,47 +384,14 @@ public class AuthService {
 
     }
 
-    public MeResponse getCurrentUserInfo() {
-        String email = SecurityUtils.getCurrentUserLogin()
-                .filter(e -> !SecurityConstants.ANONYMOUS_USER.equals(e))
-                .orElseThrow(() -> new UnauthorizedException("User not authenticated") {
-                });
-
-        Account account = accountRepository.findOneByEmailIgnoreCase(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-
-        MeResponse meResponse = buildBaseResponse(account);
-
-        BaseProfile profile = switch (account.getRole()) {
-            case STUDENT -> studentRepository.findByAccount(account)
-                    .orElseThrow(() -> new UserNotActivatedException("Account not activated"));
-            case TEACHER -> teacherRepository.findByAccount(account)
-                    .orElseThrow(() -> new UserNotActivatedException("Account not activated"));
-            default -> null;
-        };
-
-        if (profile != null) fillUserProfile(meResponse, profile);
-
-        return meResponse;
-    }
-
-    private MeResponse buildBaseResponse(Account account) {
-        return MeResponse.builder()
-                .accountId(account.getId())
-                .username(account.getUsername())
-                .email(account.getEmail())
-                .role(account.getRole())
-                .avatarUrl(account.getAvatarUrl())
-                .lastLoginAt(account.getLastLoginAt())
-                .status(account.getStatus())
-                .build();
-    }
+    /**
+     * Current user info, served from the profile cache keyed by the token's account id.
+     */
+    public ProfileCache.Snapshot getCurrentUserInfo() {
+        Long accountId = SecurityUtils.getCurrentUserId()
+                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
 
-    private void fillUserProfile(MeResponse meResponse, BaseProfile profile) {
-        meResponse.setFullName(profile.getFullName());
-        meResponse.setGender(profile.getGender());
-        meResponse.setBio(profile.getBio());
-        meResponse.setBirthday(profile.getBirthDate());
+        return profileCache.get(accountId);
     }
 
     @Transactional
@@ -363,6 +416,7 @@ public class AuthService {
 
         account.setPasswordHash(passwordEncoder.encode(changePasswordDTO.getNewPassword()));
         accountRepository.save(account);
+        sessionRevocationService.revokeAll(account.getId(), SessionRevocationService.Reason.PASSWORD_CHANGED);
     }
 
 
@@ -2,28 +2,54 @@ package vn.uit.lms.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import vn.uit.lms.shared.exception.UploadFileException;
+import vn.uit.lms.shared.jfr.StorageUploadEvent;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 public class CloudinaryStorageService {
 
     private final static Logger log = LoggerFactory.getLogger(CloudinaryStorageService.class);
     private final Cloudinary cloudinary;
+    private final Timer uploadSuccessTimer;
+    private final Timer uploadFailureTimer;
+    private final Timer deleteSuccessTimer;
+    private final Timer deleteFailureTimer;
 
     @Value("${app.avatar.folder}")
     private String baseFolder;
 
+    public CloudinaryStorageService(Cloudinary cloudinary, MeterRegistry meterRegistry) {
+        this.cloudinary = cloudinary;
+        this.uploadSuccessTimer = timer(meterRegistry, "upload", "success");
+        this.uploadFailureTimer = timer(meterRegistry, "upload", "failure");
+        this.deleteSuccessTimer = timer(meterRegistry, "delete", "success");
+        this.deleteFailureTimer = timer(meterRegistry, "delete", "failure");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Timer.builder("lms.storage.request")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .description("Cloudinary API call time")
+                .register(meterRegistry);
+    }
+
     public UploadResult uploadAvatar(MultipartFile file, Long userId, String existingPublicId) {
+        StorageUploadEvent event = new StorageUploadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = "failure";
         try {
             String publicId = String.format("user_%d_avatar", userId);
 
@@ -43,25 +69,43 @@ public class CloudinaryStorageService {
             String uploadedPublicId = (String) result.get("public_id");
 
             // Return both url and public id
+            outcome = "success";
             return new UploadResult(secureUrl, uploadedPublicId);
 
         } catch (IOException e) {
             throw new UploadFileException("Failed to upload to Cloudinary");
         } catch (Exception e) {
             throw new UploadFileException("Cloudinary upload error: " + e.getMessage());
+        } finally {
+            record("success".equals(outcome) ? uploadSuccessTimer : uploadFailureTimer, start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = file.getSize();
+                event.outcome = outcome;
+                event.commit();
+            }
         }
     }
 
     public void deleteByPublicId(String publicId) {
         if (publicId == null || publicId.isBlank()) return;
+        long start = System.nanoTime();
+        String outcome = "failure";
         try {
             cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+            outcome = "success";
         } catch (Exception ex) {
             // Log but do not rethrow to avoid breaking user flow
             log.error("Failed to delete Cloudinary resource with publicId {}: {}", publicId, ex.getMessage());
+        } finally {
+            record("success".equals(outcome) ? deleteSuccessTimer : deleteFailureTimer, start);
         }
     }
 
+    private void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
     public static class UploadResult {
         private final String url;
         private final String publicId;
@@ -1,5 +1,7 @@
 package vn.uit.lms.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
@@ -12,6 +14,7 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import vn.uit.lms.core.entity.Account;
@@ -19,15 +22,26 @@ import vn.uit.lms.core.repository.AccountRepository;
 import vn.uit.lms.shared.constant.AccountActionType;
 import vn.uit.lms.shared.constant.AccountStatus;
 import vn.uit.lms.shared.exception.ResourceNotFoundException;
+import vn.uit.lms.shared.jfr.MailRenderEvent;
+import vn.uit.lms.shared.jfr.MailSendEvent;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for sending emails asynchronously.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * We use the {@link Async} annotation to send emails asynchronously. Callers hand over accounts
+ * that may be detached by the time the task runs, so only their columns (email, username,
+ * language) are read, and delivery failures are logged rather than thrown back.
+ * Rendering and SMTP delivery are timed ({@code lms.mail.render}, {@code lms.mail.send}); the
+ * backlog of queued mails is the {@code executor.queued} metric of {@code applicationTaskExecutor}.
  */
 @Service
 public class MailService {
@@ -40,6 +54,18 @@ public class MailService {
 
     private static final String API_VERSION = "apiVersion";
 
+    private static final List<String> TEMPLATES = List.of(
+            "mail/accountApprovedEmail",
+            "mail/accountRejectedEmail",
+            "mail/accountSuspendedEmail",
+            "mail/accountUnlockedEmail",
+            "mail/accountDeactivatedEmail",
+            "mail/accountUnknownEmail",
+            "mail/activationEmail",
+            "mail/creationEmail",
+            "mail/activationSuccessEmail",
+            "mail/passwordResetEmail");
+
     @Value("${spring.mail.username")
     private String sender;
 
@@ -60,16 +86,43 @@ public class MailService {
 
     private final AccountRepository accountRepository;
 
+    private final MeterRegistry meterRegistry;
+
+    private final Timer sendSuccessTimer;
+
+    private final Timer sendFailureTimer;
+
+    private final Map<String, Timer> renderTimers = new ConcurrentHashMap<>();
+
     public MailService(
             JavaMailSender javaMailSender,
             MessageSource messageSource,
             SpringTemplateEngine templateEngine,
-            AccountRepository accountRepository
+            AccountRepository accountRepository,
+            MeterRegistry meterRegistry
     ) {
         this.javaMailSender = javaMailSender;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
         this.accountRepository = accountRepository;
+        this.meterRegistry = meterRegistry;
+        this.sendSuccessTimer = sendTimer("success");
+        this.sendFailureTimer = sendTimer("failure");
+        TEMPLATES.forEach(this::renderTimer);
+    }
+
+    private Timer sendTimer(String outcome) {
+        return Timer.builder("lms.mail.send")
+                .tag("outcome", outcome)
+                .description("SMTP delivery time")
+                .register(meterRegistry);
+    }
+
+    private Timer renderTimer(String templateName) {
+        return renderTimers.computeIfAbsent(templateName, name -> Timer.builder("lms.mail.render")
+                .tag("template", name)
+                .description("Thymeleaf mail template rendering time")
+                .register(meterRegistry));
     }
 
     @Async
@@ -115,7 +168,7 @@ public class MailService {
             }
         }
 
-        String content = templateEngine.process(templateName, context);
+        String content = render(templateName, context);
         String subject = messageSource.getMessage(subjectKey, null, locale);
 
         try {
@@ -127,6 +180,21 @@ public class MailService {
     }
 
 
+    /**
+     * Sends the same action email to the accounts of a bulk change from one background task, so it
+     * occupies a single executor thread instead of one per recipient. The accounts are read here,
+     * after the change committed, and any that have since left {@code status} are skipped.
+     */
+    @Async
+    public void sendAccountActionEmails(Collection<Long> accountIds, AccountStatus status,
+                                        AccountActionType actionType, String reason) {
+        for (Account account : accountRepository.findAllById(accountIds)) {
+            if (account.getStatus() == status) {
+                sendAccountActionEmail(account, actionType, reason);
+            }
+        }
+    }
+
     @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         sendEmailSync(to, subject, content, isMultipart, isHtml);
@@ -150,10 +218,46 @@ public class MailService {
             message.setFrom(sender);
             message.setSubject(subject);
             message.setText(content, isHtml);
+        } catch (MessagingException e) {
+            LOG.warn("Email could not be sent to user '{}'", to, e);
+            return;
+        }
+
+        MailSendEvent event = new MailSendEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean sent = false;
+        try {
             javaMailSender.send(mimeMessage);
+            sent = true;
             LOG.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
+        } catch (MailException e) {
             LOG.warn("Email could not be sent to user '{}'", to, e);
+        } finally {
+            (sent ? sendSuccessTimer : sendFailureTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = sent ? "success" : "failure";
+                event.html = isHtml;
+                event.inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+                event.commit();
+            }
+        }
+    }
+
+    private String render(String templateName, Context context) {
+        MailRenderEvent event = new MailRenderEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return templateEngine.process(templateName, context);
+        } finally {
+            renderTimer(templateName).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.template = templateName;
+                event.commit();
+            }
         }
     }
 
@@ -173,7 +277,7 @@ public class MailService {
         context.setVariable(BASE_URL, baseUrl);
         context.setVariable(API_VERSION, apiVersion);
         context.setVariable("token", token);
-        String content = templateEngine.process(templateName, context);
+        String content = render(templateName, context);
         String subject = messageSource.getMessage(titleKey, null, locale);
         sendEmailSync(account.getEmail(), subject, content, false, true);
     }
@@ -1,114 +1,221 @@
 package vn.uit.lms.service;
 
-import org.springdoc.core.service.SecurityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.uit.lms.core.entity.Account;
 import vn.uit.lms.core.entity.RefreshToken;
 import vn.uit.lms.core.entity.Student;
 import vn.uit.lms.core.entity.Teacher;
+import vn.uit.lms.core.repository.AccountRepository;
 import vn.uit.lms.core.repository.RefreshTokenRepository;
 import vn.uit.lms.core.repository.StudentRepository;
 import vn.uit.lms.core.repository.TeacherRepository;
 import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.constant.SecurityConstants;
+import vn.uit.lms.shared.dto.request.ReqLoginDTO;
 import vn.uit.lms.shared.dto.request.ReqRefreshTokenDTO;
 import vn.uit.lms.shared.dto.response.ResLoginDTO;
+import vn.uit.lms.shared.dto.response.SessionResponse;
 import vn.uit.lms.shared.exception.InvalidTokenException;
+import vn.uit.lms.shared.exception.ResourceNotFoundException;
+import vn.uit.lms.shared.exception.UnauthorizedException;
 import vn.uit.lms.shared.exception.UserNotActivatedException;
+import vn.uit.lms.shared.jfr.TokenRefreshEvent;
 import vn.uit.lms.shared.mapper.AccountMapper;
 import vn.uit.lms.shared.util.SecurityUtils;
 import vn.uit.lms.shared.util.TokenHashUtil;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Device sessions backed by {@code refresh_tokens}: one row per account and device.
+ * <p>
+ * Logging in again from a known device replaces that row's token instead of adding a row, and
+ * each refresh rotates the token in place. Presenting a token that has already been rotated away
+ * means it was copied, so the whole session is revoked. An account keeps at most
+ * {@code app.session.max-per-account} live sessions; the least recently used ones are evicted.
+ * </p>
+ */
 @Service
 public class RefreshTokenService {
 
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final String UNKNOWN_DEVICE = "Unknown device";
+
+    private enum RefreshOutcome {
+        SUCCESS, INVALID, REUSED, REVOKED, EXPIRED, NOT_ACTIVATED, UNSUPPORTED_ROLE, ALREADY_ROTATED, ERROR;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
     private final RefreshTokenRepository refreshTokenRepository;
+    private final AccountRepository accountRepository;
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
     private final SecurityUtils securityUtils;
+    private final int maxSessionsPerAccount;
+    private final Map<RefreshOutcome, Timer> refreshTimers = new EnumMap<>(RefreshOutcome.class);
 
     public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               AccountRepository accountRepository,
                                StudentRepository studentRepository,
                                TeacherRepository teacherRepository,
-                               SecurityUtils securityUtils) {
+                               SecurityUtils securityUtils,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.session.max-per-account:10}") int maxSessionsPerAccount) {
         this.refreshTokenRepository = refreshTokenRepository;
+        this.accountRepository = accountRepository;
         this.studentRepository = studentRepository;
         this.teacherRepository = teacherRepository;
         this.securityUtils = securityUtils;
+        this.maxSessionsPerAccount = Math.max(1, maxSessionsPerAccount);
+        for (RefreshOutcome outcome : RefreshOutcome.values()) {
+            refreshTimers.put(outcome, Timer.builder("lms.auth.refresh")
+                    .tag("outcome", outcome.tag)
+                    .description("Refresh token exchanges by outcome")
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Issues a refresh token for the device making the login and stores it on that device's
+     * session, creating the session if needed.
+     */
+    @Transactional
+    public void startSession(Account account, ReqLoginDTO reqLoginDTO, ResLoginDTO resLoginDTO) {
+        String deviceInfo = reqLoginDTO.getDeviceInfo() != null ? reqLoginDTO.getDeviceInfo() : UNKNOWN_DEVICE;
+        String deviceId = deviceFingerprint(reqLoginDTO.getDeviceId(), deviceInfo, reqLoginDTO.getIpAddress());
+
+        String rawRefreshToken = securityUtils.createRefreshToken(account.getEmail());
+        Instant expiresAt = Instant.now().plus(securityUtils.getRefreshTokenExpiration(), ChronoUnit.SECONDS);
+
+        refreshTokenRepository.upsertSession(
+                account.getId(),
+                deviceId,
+                TokenHashUtil.hashToken(rawRefreshToken),
+                deviceInfo,
+                reqLoginDTO.getIpAddress(),
+                expiresAt,
+                SecurityUtils.getCurrentUserLogin().orElse(""));
+        int evicted = refreshTokenRepository.evictLeastRecentlyUsed(account.getId(), maxSessionsPerAccount);
+        if (evicted > 0) {
+            log.debug("Evicted {} stale sessions of account id={}", evicted, account.getId());
+        }
+
+        resLoginDTO.setRefreshToken(rawRefreshToken);
+        resLoginDTO.setRefreshTokenExpiresAt(expiresAt);
     }
 
     /**
      * Refresh an expired access token using a valid refresh token.
-     * - Validate and revoke the old refresh token.
+     * - Validate the refresh token and rotate it on its session.
      * - Generate a new access token and refresh token.
      */
-    @Transactional
+    @Transactional(noRollbackFor = InvalidTokenException.class)
     public ResLoginDTO refreshAccessToken(ReqRefreshTokenDTO reqRefreshTokenDTO) {
-        Instant now = Instant.now();
+        long start = System.nanoTime();
+        TokenRefreshEvent event = new TokenRefreshEvent();
+        event.begin();
+        RefreshOutcome outcome = RefreshOutcome.ERROR;
+        try {
+            Instant now = Instant.now();
 
-        // Hash the incoming refresh token
-        String tokenHash = TokenHashUtil.hashToken(reqRefreshTokenDTO.getRefreshToken());
+            // Hash the incoming refresh token
+            String tokenHash = TokenHashUtil.hashToken(reqRefreshTokenDTO.getRefreshToken());
 
-        // Find refresh token in database
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
-                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+            Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(tokenHash);
+            if (found.isEmpty()) {
+                boolean reused = revokeIfReused(tokenHash);
+                outcome = reused ? RefreshOutcome.REUSED : RefreshOutcome.INVALID;
+                throw new InvalidTokenException(reused ? "Refresh token reuse detected" : "Invalid refresh token");
+            }
+            RefreshToken refreshToken = found.get();
 
-        // Validate token status
-        if (refreshToken.isRevoked()) {
-            throw new InvalidTokenException("Refresh token revoked");
-        }
-        if (refreshToken.getExpiresAt().isBefore(now)) {
-            throw new InvalidTokenException("Refresh token expired");
-        }
+            // Validate token status
+            if (refreshToken.isRevoked()) {
+                outcome = RefreshOutcome.REVOKED;
+                throw new InvalidTokenException("Refresh token revoked");
+            }
+            if (refreshToken.getExpiresAt().isBefore(now)) {
+                outcome = RefreshOutcome.EXPIRED;
+                throw new InvalidTokenException("Refresh token expired");
+            }
 
-        Account accountDB = refreshToken.getAccount();
-
-        // Revoke old refresh token
-        refreshToken.setRevoked(true);
-        refreshTokenRepository.save(refreshToken);
-
-        // Map account to response DTO
-        ResLoginDTO resLoginDTO;
-        if (accountDB.getRole() == Role.STUDENT) {
-            Student student = studentRepository.findByAccount(accountDB)
-                    .orElseThrow(() -> new UserNotActivatedException("Account not activated"));
-            resLoginDTO = AccountMapper.studentToResLoginDTO(student);
-        } else if (accountDB.getRole() == Role.TEACHER) {
-            Teacher teacher = teacherRepository.findByAccount(accountDB)
-                    .orElseThrow(() -> new UserNotActivatedException("Account not activated"));
-            resLoginDTO = AccountMapper.teacherToResLoginDTO(teacher);
-        } else {
-            throw new InvalidTokenException("Unknown role");
-        }
+            Account accountDB = refreshToken.getAccount();
+            event.role = accountDB.getRole().name();
 
-        // Generate new access token
-        String newAccessToken = securityUtils.createAccessToken(accountDB.getEmail(), resLoginDTO);
-        Instant accessTokenExpiresAt = now.plus(securityUtils.getAccessTokenExpiration(), ChronoUnit.SECONDS);
-        resLoginDTO.setAccessToken(newAccessToken);
-        resLoginDTO.setAccessTokenExpiresAt(accessTokenExpiresAt);
-
-        // Generate new refresh token
-        String newRefreshTokenPlain = securityUtils.createRefreshToken(accountDB.getEmail());
-        String newRefreshTokenHash = TokenHashUtil.hashToken(newRefreshTokenPlain);
-        Instant refreshTokenExpiresAt = now.plus(securityUtils.getRefreshTokenExpiration(), ChronoUnit.SECONDS);
-
-        RefreshToken newRefreshToken = new RefreshToken();
-        newRefreshToken.setAccount(accountDB);
-        newRefreshToken.setTokenHash(newRefreshTokenHash);
-        newRefreshToken.setExpiresAt(refreshTokenExpiresAt);
-        newRefreshToken.setDeviceInfo(reqRefreshTokenDTO.getDeviceInfo() != null
-                ? refreshToken.getDeviceInfo() : "Unknown device");
-        newRefreshToken.setIpAddress(reqRefreshTokenDTO.getIpAddress());
-        newRefreshToken.setRevoked(false);
-        refreshTokenRepository.save(newRefreshToken);
-
-        resLoginDTO.setRefreshToken(newRefreshTokenPlain);
-        resLoginDTO.setRefreshTokenExpiresAt(refreshTokenExpiresAt);
-
-        return resLoginDTO;
+            // Map account to response DTO
+            ResLoginDTO resLoginDTO;
+            Long profileId;
+            if (accountDB.getRole() == Role.STUDENT) {
+                Optional<Student> student = studentRepository.findByAccount(accountDB);
+                if (student.isEmpty()) {
+                    outcome = RefreshOutcome.NOT_ACTIVATED;
+                    throw new UserNotActivatedException("Account not activated");
+                }
+                resLoginDTO = AccountMapper.studentToResLoginDTO(student.get());
+                profileId = student.get().getId();
+            } else if (accountDB.getRole() == Role.TEACHER) {
+                Optional<Teacher> teacher = teacherRepository.findByAccount(accountDB);
+                if (teacher.isEmpty()) {
+                    outcome = RefreshOutcome.NOT_ACTIVATED;
+                    throw new UserNotActivatedException("Account not activated");
+                }
+                resLoginDTO = AccountMapper.teacherToResLoginDTO(teacher.get());
+                profileId = teacher.get().getId();
+            } else {
+                outcome = RefreshOutcome.UNSUPPORTED_ROLE;
+                throw new InvalidTokenException("Unknown role");
+            }
+
+            // Rotate the refresh token; the guarded update lets only one concurrent refresh win
+            String newRefreshTokenPlain = securityUtils.createRefreshToken(accountDB.getEmail());
+            Instant refreshTokenExpiresAt = now.plus(securityUtils.getRefreshTokenExpiration(), ChronoUnit.SECONDS);
+            List<Long> rotated = refreshTokenRepository.rotate(
+                    tokenHash,
+                    TokenHashUtil.hashToken(newRefreshTokenPlain),
+                    reqRefreshTokenDTO.getIpAddress(),
+                    refreshTokenExpiresAt);
+            if (rotated.isEmpty()) {
+                outcome = RefreshOutcome.ALREADY_ROTATED;
+                throw new InvalidTokenException("Refresh token already used");
+            }
+
+            // Generate new access token
+            String newAccessToken = securityUtils.createAccessToken(resLoginDTO.getUser(), profileId);
+            resLoginDTO.setAccessToken(newAccessToken);
+            resLoginDTO.setAccessTokenExpiresAt(now.plus(securityUtils.getAccessTokenExpiration(), ChronoUnit.SECONDS));
+
+            resLoginDTO.setRefreshToken(newRefreshTokenPlain);
+            resLoginDTO.setRefreshTokenExpiresAt(refreshTokenExpiresAt);
+
+            outcome = RefreshOutcome.SUCCESS;
+            return resLoginDTO;
+        } finally {
+            refreshTimers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome.tag;
+                event.commit();
+            }
+        }
     }
 
     /**
@@ -118,13 +225,82 @@ public class RefreshTokenService {
     public void revokeRefreshToken(String refreshTokenPlain) {
         String tokenHash = TokenHashUtil.hashToken(refreshTokenPlain);
 
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
-                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        if (refreshTokenRepository.revokeByTokenHash(tokenHash) == 0
+                && refreshTokenRepository.findByTokenHash(tokenHash).isEmpty()) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+    }
+
+    /**
+     * Lists the live sessions of the current user, most recently used first.
+     */
+    @Transactional(readOnly = true)
+    public List<SessionResponse> getCurrentSessions() {
+        return refreshTokenRepository.findActiveSessions(currentAccountId(), Instant.now()).stream()
+                .map(row -> SessionResponse.builder()
+                        .id(row.getId())
+                        .deviceInfo(row.getDeviceInfo())
+                        .ipAddress(row.getIpAddress())
+                        .createdAt(row.getCreatedAt())
+                        .lastUsedAt(row.getLastUsedAt())
+                        .expiresAt(row.getExpiresAt())
+                        .build())
+                .toList();
+    }
 
-        if (!refreshToken.isRevoked()) {
-            refreshToken.setRevoked(true);
-            refreshTokenRepository.save(refreshToken);
+    @Transactional
+    public void revokeSession(Long sessionId) {
+        if (refreshTokenRepository.revokeByIdAndAccountId(sessionId, currentAccountId()) == 0) {
+            throw new ResourceNotFoundException("Session not found");
         }
     }
-}
 
+    /**
+     * Signs the current user out of every device.
+     */
+    @Transactional
+    public int revokeAllSessions() {
+        return refreshTokenRepository.revokeAllByAccountId(currentAccountId());
+    }
+
+    /**
+     * A token that is no longer current but is some session's previous token was copied:
+     * revoke that session.
+     */
+    private boolean revokeIfReused(String tokenHash) {
+        Optional<RefreshToken> session = refreshTokenRepository.findByPreviousTokenHash(tokenHash);
+        if (session.isEmpty()) {
+            return false;
+        }
+        RefreshToken stolen = session.get();
+        refreshTokenRepository.revokeByIdAndAccountId(stolen.getId(), stolen.getAccount().getId());
+        log.warn("Rotated refresh token presented again; revoked session id={} of account id={}",
+                stolen.getId(), stolen.getAccount().getId());
+        return true;
+    }
+
+    private Long currentAccountId() {
+        String email = SecurityUtils.getCurrentUserLogin()
+                .filter(e -> !SecurityConstants.ANONYMOUS_USER.equals(e))
+                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
+        return accountRepository.findOneByEmailIgnoreCase(email)
+                .map(Account::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+    }
+
+    /**
+     * SHA-256 hex of the client-supplied device id when present, otherwise of the device
+     * description and IP. Must stay in line with the backfill in V9.
+     */
+    static String deviceFingerprint(String clientDeviceId, String deviceInfo, String ipAddress) {
+        String source = clientDeviceId != null && !clientDeviceId.isBlank()
+                ? "d:" + clientDeviceId.strip()
+                : "i:" + deviceInfo + "|" + (ipAddress == null ? "" : ipAddress);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package vn.uit.lms.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import vn.uit.lms.core.repository.RefreshTokenRepository;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Signs accounts out of every device when their credentials or status change.
+ * <p>
+ * Revocation is one set-based {@code UPDATE} per call, whatever the number of sessions or
+ * accounts, and must run inside the caller's transaction so it commits (or rolls back) together
+ * with the change that triggered it. Access tokens already issued stay valid until they expire.
+ * </p>
+ */
+@Service
+public class SessionRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionRevocationService.class);
+
+    public enum Reason { PASSWORD_CHANGED, PASSWORD_RESET, STATUS_CHANGED, DEACTIVATED }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    public SessionRevocationService(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return number of sessions revoked
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int revokeAll(Long accountId, Reason reason) {
+        int revoked = refreshTokenRepository.revokeAllByAccountId(accountId);
+        record(reason, revoked);
+        log.info("Revoked {} sessions of account id={} ({})", revoked, accountId, reason);
+        return revoked;
+    }
+
+    /**
+     * @return number of sessions revoked across all the accounts
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int revokeAll(Collection<Long> accountIds, Reason reason) {
+        if (accountIds.isEmpty()) {
+            return 0;
+        }
+        int revoked = refreshTokenRepository.revokeAllByAccountIdIn(accountIds);
+        record(reason, revoked);
+        log.info("Revoked {} sessions of {} accounts ({})", revoked, accountIds.size(), reason);
+        return revoked;
+    }
+
+    private void record(Reason reason, int revoked) {
+        meterRegistry.counter("lms.sessions.revoked", "reason", reason.name().toLowerCase(Locale.ROOT)).increment(revoked);
+    }
+}
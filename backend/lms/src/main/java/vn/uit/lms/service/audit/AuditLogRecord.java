@@ -0,0 +1,42 @@
+package vn.uit.lms.service.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import vn.uit.lms.shared.constant.AccountActionType;
+import vn.uit.lms.shared.util.SecurityUtils;
+
+import java.time.Instant;
+
+/**
+ * Immutable audit entry queued for insertion into {@code account_action_log}.
+ * <p>
+ * Carries ids rather than entities so it can be written from any thread without a persistence context.
+ * </p>
+ */
+@Getter
+@AllArgsConstructor
+public class AuditLogRecord {
+    private final Long targetAccountId;
+    private final AccountActionType actionType;
+    private final String reason;
+    private final Long performedById;
+    private final String ipAddress;
+    private final String oldStatus;
+    private final String newStatus;
+    private final Instant createdAt;
+    private final String createdBy;
+
+    /**
+     * Record stamped now and attributed to the current user; call on the request thread.
+     */
+    public static AuditLogRecord of(Long targetAccountId,
+                                    AccountActionType actionType,
+                                    String reason,
+                                    Long performedById,
+                                    String ipAddress,
+                                    String oldStatus,
+                                    String newStatus) {
+        return new AuditLogRecord(targetAccountId, actionType, reason, performedById, ipAddress,
+                oldStatus, newStatus, Instant.now(), SecurityUtils.getCurrentUserLogin().orElse(""));
+    }
+}
@@ -0,0 +1,200 @@
+package vn.uit.lms.service.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes account audit entries off the request path.
+ * <p>
+ * Entries are queued on a bounded lock-free ring and drained by a scheduled flusher that inserts
+ * them with one JDBC batch per {@code app.audit.batch-size} rows (collapsed into multi-row
+ * {@code INSERT}s when the PostgreSQL driver runs with {@code reWriteBatchedInserts=true}).
+ * </p>
+ * Modes ({@code app.audit.mode}):
+ * <ul>
+ *     <li>{@code SYNC} - insert in the caller's transaction, as before;</li>
+ *     <li>{@code ASYNC} - queue immediately, even if the caller's transaction later rolls back;</li>
+ *     <li>{@code AFTER_COMMIT} - queue only once the caller's transaction has committed.</li>
+ * </ul>
+ * When the ring is full the entry is either dropped and counted ({@code DROP}) or inserted on the
+ * calling thread ({@code CALLER_RUNS}). Queued entries are lost if the JVM dies before a flush.
+ */
+@Service
+public class AuditLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO account_action_log
+                (account_id, action_type, reason, performed_by, ip_address,
+                 old_status, new_status, created_at, updated_at, created_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    public enum Mode { SYNC, ASYNC, AFTER_COMMIT }
+
+    public enum OverflowPolicy { DROP, CALLER_RUNS }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final AuditLogRingBuffer buffer;
+    private final Mode mode;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+
+    private final Counter writtenCounter;
+    private final Counter overflowDropCounter;
+    private final Counter writeErrorDropCounter;
+    private final Timer flushTimer;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.mode:AFTER_COMMIT}") Mode mode,
+                          @Value("${app.audit.overflow:CALLER_RUNS}") OverflowPolicy overflowPolicy,
+                          @Value("${app.audit.capacity:8192}") int capacity,
+                          @Value("${app.audit.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Own transaction: afterCommit callbacks still see the caller's (already committed) connection
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new AuditLogRingBuffer(capacity);
+        this.mode = mode;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = Math.max(1, batchSize);
+
+        Gauge.builder("lms.audit.queue.depth", buffer, AuditLogRingBuffer::size)
+                .description("Audit entries waiting to be flushed")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("lms.audit.written")
+                .description("Audit entries inserted")
+                .register(meterRegistry);
+        this.overflowDropCounter = Counter.builder("lms.audit.dropped")
+                .tag("reason", "overflow")
+                .description("Audit entries discarded")
+                .register(meterRegistry);
+        this.writeErrorDropCounter = Counter.builder("lms.audit.dropped")
+                .tag("reason", "write_error")
+                .description("Audit entries discarded")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("lms.audit.flush")
+                .description("Latency of one audit batch insert")
+                .register(meterRegistry);
+    }
+
+    public void write(AuditLogRecord record) {
+        writeAll(List.of(record));
+    }
+
+    public void writeAll(List<AuditLogRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        switch (mode) {
+            case SYNC -> {
+                for (int from = 0; from < records.size(); from += batchSize) {
+                    insert(records.subList(from, Math.min(records.size(), from + batchSize)));
+                }
+            }
+            case ASYNC -> records.forEach(this::enqueue);
+            case AFTER_COMMIT -> {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            records.forEach(AuditLogWriter.this::enqueue);
+                        }
+                    });
+                } else {
+                    records.forEach(this::enqueue);
+                }
+            }
+        }
+    }
+
+    private void enqueue(AuditLogRecord record) {
+        if (buffer.offer(record)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            insertQuietly(List.of(record));
+        } else {
+            overflowDropCounter.increment();
+            log.warn("Audit queue full ({} entries), dropped {} on account {}",
+                    buffer.capacity(), record.getActionType(), record.getTargetAccountId());
+        }
+    }
+
+    /**
+     * Drains the ring until it is empty, one batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval-ms:200}")
+    public void flush() {
+        List<AuditLogRecord> batch = new ArrayList<>(batchSize);
+        while (true) {
+            AuditLogRecord record;
+            while (batch.size() < batchSize && (record = buffer.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            insertQuietly(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        flush();
+    }
+
+    private void insertQuietly(List<AuditLogRecord> batch) {
+        try {
+            flushTimer.record(() -> batchTransaction.executeWithoutResult(status -> insert(batch)));
+        } catch (DataAccessException ex) {
+            writeErrorDropCounter.increment(batch.size());
+            log.error("Failed to write {} audit entries", batch.size(), ex);
+        }
+    }
+
+    private void insert(List<AuditLogRecord> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind);
+        writtenCounter.increment(batch.size());
+    }
+
+    private void bind(PreparedStatement ps, AuditLogRecord record) throws SQLException {
+        Timestamp createdAt = Timestamp.from(record.getCreatedAt());
+        ps.setLong(1, record.getTargetAccountId());
+        ps.setString(2, record.getActionType().name());
+        ps.setString(3, record.getReason());
+        ps.setLong(4, record.getPerformedById());
+        ps.setString(5, record.getIpAddress());
+        ps.setString(6, record.getOldStatus());
+        ps.setString(7, record.getNewStatus());
+        ps.setTimestamp(8, createdAt);
+        ps.setTimestamp(9, createdAt);
+        ps.setString(10, record.getCreatedBy());
+    }
+}
@@ -0,0 +1,241 @@
+package vn.uit.lms.service.availability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.uit.lms.shared.dto.response.AvailabilityResponse;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "is this username / email free?" for the registration form.
+ * <p>
+ * Every lower-cased username and email is kept in an in-memory Bloom filter, built at startup by
+ * streaming the accounts table and fed by registration and import. A filter miss means the value
+ * is certainly unused and is answered without touching the database; only probable hits are
+ * confirmed against the {@code username_lower}/{@code email_lower} indexes. Until the first build
+ * finishes every check goes to the database.
+ * </p>
+ * <p>
+ * Bloom filters cannot forget values, so removed accounts only raise the false positive rate
+ * (a false positive still gets the correct answer from the database). The filters are rebuilt
+ * when removals or growth past the sized capacity make that worthwhile.
+ * </p>
+ * An account still pending email verification is reported as available, as registration would
+ * replace it.
+ */
+@Service
+public class AccountAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountAvailabilityService.class);
+
+    private static final String USERNAME_TAKEN_SQL = """
+            SELECT EXISTS (SELECT 1 FROM accounts WHERE username_lower = ? AND status <> 'PENDING_EMAIL')
+            """;
+    private static final String EMAIL_TAKEN_SQL = """
+            SELECT EXISTS (SELECT 1 FROM accounts WHERE email_lower = ? AND status <> 'PENDING_EMAIL')
+            """;
+
+    private record Filters(BloomFilter usernames, BloomFilter emails, long capacity) {
+
+        void add(String username, String email) {
+            if (username != null) {
+                usernames.add(username);
+            }
+            if (email != null) {
+                emails.add(email);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final double rebuildRemovalRatio;
+
+    private volatile Filters filters;
+    private volatile Filters building;
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong removed = new AtomicLong();
+
+    private final Counter filterMisses;
+    private final Counter databaseHits;
+    private final Counter falsePositives;
+
+    public AccountAvailabilityService(JdbcTemplate jdbcTemplate,
+                                      DataSource dataSource,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                      @Value("${app.availability.min-capacity:100000}") long minCapacity,
+                                      @Value("${app.availability.rebuild-removal-ratio:0.1}") double rebuildRemovalRatio,
+                                      @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.rebuildRemovalRatio = rebuildRemovalRatio;
+
+        this.filterMisses = Counter.builder("lms.availability.checks").tag("result", "filter_miss")
+                .description("Availability checks by how they were answered").register(meterRegistry);
+        this.databaseHits = Counter.builder("lms.availability.checks").tag("result", "db_taken")
+                .description("Availability checks by how they were answered").register(meterRegistry);
+        this.falsePositives = Counter.builder("lms.availability.checks").tag("result", "db_free")
+                .description("Availability checks by how they were answered").register(meterRegistry);
+    }
+
+    public AvailabilityResponse check(String username, String email) {
+        return AvailabilityResponse.builder()
+                .username(username == null ? null : isUsernameAvailable(username))
+                .email(email == null ? null : isEmailAvailable(email))
+                .build();
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        String key = normalize(username);
+        Filters current = filters;
+        return current != null && !current.usernames().mightContain(key)
+                ? miss()
+                : confirm(USERNAME_TAKEN_SQL, key);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        String key = normalize(email);
+        Filters current = filters;
+        return current != null && !current.emails().mightContain(key)
+                ? miss()
+                : confirm(EMAIL_TAKEN_SQL, key);
+    }
+
+    /**
+     * Records a new account once the caller's transaction commits (immediately outside one), so a
+     * rebuild that starts in between either sees the row in its scan or receives the add.
+     */
+    public void recordAccount(String username, String email) {
+        String u = username == null ? null : normalize(username);
+        String e = email == null ? null : normalize(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(u, e);
+                }
+            });
+        } else {
+            add(u, e);
+        }
+    }
+
+    private void add(String username, String email) {
+        // building before filters: rebuild() publishes filters before clearing building, so a
+        // null here means the new filters are already live
+        Filters next = building;
+        if (next != null) {
+            next.add(username, email);
+        }
+        Filters current = filters;
+        if (current != null && current != next) {
+            current.add(username, email);
+        }
+        added.incrementAndGet();
+    }
+
+    /**
+     * Records a hard-deleted account; its bits stay set until the next rebuild.
+     */
+    public void recordRemoval() {
+        removed.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds when removals or growth have degraded the filters.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.rebuild-check-interval-ms:3600000}")
+    public void rebuildIfDegraded() {
+        Filters current = filters;
+        if (current == null) {
+            return;
+        }
+        if (added.get() > current.capacity() || removed.get() > current.capacity() * rebuildRemovalRatio) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams every username and email into fresh filters, then swaps them in. Accounts committed
+     * after the new filters are published to {@code building} go into both the live and the new
+     * filters; anything committed earlier is in the scan.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM accounts", Long.class);
+            long capacity = Math.max(minCapacity, (count == null ? 0 : count) * 2);
+            Filters next = new Filters(
+                    new BloomFilter(capacity, falsePositiveRate),
+                    new BloomFilter(capacity, falsePositiveRate),
+                    capacity);
+            long addedBefore = added.get();
+            long removedBefore = removed.get();
+            building = next;
+            long scanned = readOnlyTransaction.execute(status -> {
+                long[] rows = {0};
+                streamingJdbcTemplate.query("SELECT username_lower, email_lower FROM accounts", (ResultSet rs) -> {
+                    next.add(rs.getString(1), rs.getString(2));
+                    rows[0]++;
+                });
+                return rows[0];
+            });
+            // keep what was recorded while scanning
+            added.addAndGet(scanned - addedBefore);
+            removed.addAndGet(-removedBefore);
+            filters = next;
+            log.info("Built availability filters over {} accounts ({} bits x {} hashes each) in {} ms",
+                    scanned, next.usernames().bitCount(), next.usernames().hashCount(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Could not build availability filters; checks will keep using the database", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    private boolean miss() {
+        filterMisses.increment();
+        return true;
+    }
+
+    private boolean confirm(String sql, String key) {
+        boolean taken = Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, key));
+        (taken ? databaseHits : falsePositives).increment();
+        return !taken;
+    }
+
+    private static String normalize(String value) {
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,153 @@
+package vn.uit.lms.service.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import vn.uit.lms.shared.exception.InvalidRequestException;
+import vn.uit.lms.shared.jfr.JsonViewEvent;
+import vn.uit.lms.shared.jfr.LoginEvent;
+import vn.uit.lms.shared.jfr.MailRenderEvent;
+import vn.uit.lms.shared.jfr.MailSendEvent;
+import vn.uit.lms.shared.jfr.StorageUploadEvent;
+import vn.uit.lms.shared.jfr.TokenIssueEvent;
+import vn.uit.lms.shared.jfr.TokenRefreshEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps a continuous JDK Flight Recorder recording so incidents can be diagnosed after the fact.
+ * <p>
+ * The recording ({@code app.flight-recorder.*}) uses the JDK's {@code default} settings, which
+ * cost around 1% CPU, plus the application's own events from {@code vn.uit.lms.shared.jfr}.
+ * It is kept on disk and trimmed to {@code max-age} / {@code max-size}.
+ * {@link #dump(Duration)} writes the last few minutes to a file that JDK Mission Control or
+ * {@code jfr print} can open.
+ * </p>
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final String RECORDING_NAME = "lms-continuous";
+
+    private static final List<Class<? extends Event>> APPLICATION_EVENTS = List.of(
+            LoginEvent.class,
+            TokenIssueEvent.class,
+            TokenRefreshEvent.class,
+            JsonViewEvent.class,
+            MailRenderEvent.class,
+            MailSendEvent.class,
+            StorageUploadEvent.class);
+
+    private final boolean enabled;
+    private final String settings;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Duration eventThreshold;
+
+    private Recording recording;
+
+    public FlightRecorderService(@Value("${app.flight-recorder.enabled:true}") boolean enabled,
+                                 @Value("${app.flight-recorder.settings:default}") String settings,
+                                 @Value("${app.flight-recorder.max-age:30m}") Duration maxAge,
+                                 @Value("${app.flight-recorder.max-size:250MB}") DataSize maxSize,
+                                 @Value("${app.flight-recorder.event-threshold:0ms}") Duration eventThreshold) {
+        this.enabled = enabled;
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.eventThreshold = eventThreshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            Recording continuous = new Recording(configuration());
+            continuous.setName(RECORDING_NAME);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(maxAge);
+            continuous.setMaxSize(maxSize.toBytes());
+            for (Class<? extends Event> eventClass : APPLICATION_EVENTS) {
+                continuous.enable(eventClass).withThreshold(eventThreshold);
+            }
+            continuous.start();
+            recording = continuous;
+            log.info("Started continuous flight recording with '{}' settings, keeping {} / {}",
+                    settings, maxAge, maxSize);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            // never keep the application from starting over diagnostics
+            log.warn("Could not start the continuous flight recording", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Writes the recorded data of the last {@code window} to a temporary file, which the caller
+     * deletes. A window longer than {@code max-age} is shortened to it, and the window is cut at
+     * chunk boundaries, so the file may start a little earlier.
+     * Recordings started with {@code -XX:StartFlightRecording} are included as well.
+     */
+    public Path dump(Duration window) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new InvalidRequestException("Flight recorder is not available in this JVM");
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new InvalidRequestException("Window must be positive");
+        }
+        // the continuous recording holds nothing older than its max-age
+        Duration span = window.compareTo(maxAge) > 0 ? maxAge : window;
+
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            if (snapshot.getSize() == 0) {
+                throw new InvalidRequestException("No flight recording is running");
+            }
+            snapshot.setMaxAge(span);
+            Path file = Files.createTempFile("lms-", ".jfr");
+            try {
+                snapshot.dump(file);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            log.info("Dumped the last {} of flight recording to {}", span, file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Configuration configuration() throws IOException, ParseException {
+        return settings.endsWith(".jfc")
+                ? Configuration.create(Path.of(settings))
+                : Configuration.getConfiguration(settings);
+    }
+}
@@ -0,0 +1,84 @@
+package vn.uit.lms.service.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Timestamp;
+
+/**
+ * RFC 4180 CSV: header line, CRLF line endings, fields quoted only when needed.
+ * <p>
+ * Text starting with {@code = + - @}, tab or CR would be evaluated as a formula by spreadsheet
+ * applications, so such cells are prefixed with {@code '} (CSV injection). Numbers and timestamps
+ * are written as is.
+ * </p>
+ */
+class CsvExportWriter implements ExportWriter {
+
+    private final Writer out;
+
+    CsvExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(String[] columns) throws IOException {
+        row(columns);
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(values[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.flush();
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Timestamp ts ? ts.toInstant().toString() : value.toString();
+        if (value instanceof CharSequence && isFormulaTrigger(text)) {
+            text = "'" + text;
+        }
+        if (!needsQuoting(text)) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean isFormulaTrigger(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
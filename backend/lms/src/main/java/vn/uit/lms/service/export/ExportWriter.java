@@ -0,0 +1,15 @@
+package vn.uit.lms.service.export;
+
+import java.io.IOException;
+
+/**
+ * Row-at-a-time sink for exports; implementations keep no rows in memory.
+ */
+interface ExportWriter {
+
+    void begin(String[] columns) throws IOException;
+
+    void row(Object[] values) throws IOException;
+
+    void end() throws IOException;
+}
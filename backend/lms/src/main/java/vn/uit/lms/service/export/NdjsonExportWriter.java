@@ -0,0 +1,53 @@
+package vn.uit.lms.service.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Timestamp;
+
+/**
+ * One JSON object per line, streamed through a single {@link JsonGenerator}.
+ */
+class NdjsonExportWriter implements ExportWriter {
+
+    private final JsonGenerator generator;
+    private String[] columns;
+
+    NdjsonExportWriter(JsonFactory jsonFactory, Writer out) throws IOException {
+        this.generator = jsonFactory.createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void begin(String[] columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            generator.writeFieldName(columns[i]);
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Number n) {
+                generator.writeNumber(n.longValue());
+            } else if (value instanceof Timestamp ts) {
+                generator.writeString(ts.toInstant().toString());
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void end() throws IOException {
+        generator.flush();
+    }
+}
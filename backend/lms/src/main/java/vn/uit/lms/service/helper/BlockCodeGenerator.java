@@ -0,0 +1,118 @@
+package vn.uit.lms.service.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link CodeGenerator} backed by a per-prefix, per-year counter in {@code code_blocks}.
+ * <p>
+ * Each node reserves {@code blockSize} serials at a time with a single upsert (in its own
+ * transaction, so a rolled-back caller never causes a serial to be issued twice) and hands them
+ * out with a lock-free increment; only block refills synchronize.
+ * </p>
+ * Codes look like {@code STU26} + 7 digits + a Luhn check digit. The 7 digits are an affine
+ * permutation of the serial modulo 10^7, so consecutive codes do not reveal enrolment order but
+ * remain unique; the check digit catches typos when codes are typed in by hand.
+ */
+public abstract class BlockCodeGenerator implements CodeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockCodeGenerator.class);
+
+    static final long SERIAL_SPACE = 10_000_000L;           // 7 digits per prefix and year
+    private static final long MULTIPLIER = 3_778_621L;      // coprime with 10^7, so the mapping is a bijection
+    private static final long OFFSET = 5_102_743L;
+
+    private static final String ALLOCATE_SQL = """
+            INSERT INTO code_blocks (prefix, year, next_value) VALUES (?, ?, ?)
+            ON CONFLICT (prefix, year) DO UPDATE SET next_value = code_blocks.next_value + EXCLUDED.next_value
+            RETURNING next_value - ?
+            """;
+
+    private final String prefix;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate allocationTransaction;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(-1, 0, 0));
+
+    protected BlockCodeGenerator(String prefix,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 int blockSize) {
+        this.prefix = prefix;
+        this.jdbcTemplate = jdbcTemplate;
+        this.allocationTransaction = new TransactionTemplate(transactionManager);
+        this.allocationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    @Override
+    public String generate() {
+        int year = Year.now().getValue();
+        while (true) {
+            Block block = current.get();
+            if (block.year == year) {
+                long serial = block.next.getAndIncrement();
+                if (serial < block.end) {
+                    return format(prefix, year, serial);
+                }
+            }
+            refill(block, year);
+        }
+    }
+
+    private synchronized void refill(Block stale, int year) {
+        if (current.get() != stale) {
+            return;     // another thread already refilled
+        }
+        Long start = allocationTransaction.execute(status ->
+                jdbcTemplate.queryForObject(ALLOCATE_SQL, Long.class, prefix, year, blockSize, blockSize));
+        if (start == null || start + blockSize > SERIAL_SPACE) {
+            throw new IllegalStateException("Code space exhausted for " + prefix + " in " + year);
+        }
+        log.debug("Allocated {} codes [{}, {}) for {}{}", blockSize, start, start + blockSize, prefix, year);
+        current.set(new Block(year, start, start + blockSize));
+    }
+
+    static String format(String prefix, int year, long serial) {
+        long obfuscated = (serial * MULTIPLIER + OFFSET) % SERIAL_SPACE;
+        String digits = String.format("%02d%07d", year % 100, obfuscated);
+        return prefix + digits + luhnCheckDigit(digits);
+    }
+
+    static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubled = true;     // the check digit will sit to the right of the last digit
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (doubled) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static final class Block {
+        private final int year;
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(int year, long start, long end) {
+            this.year = year;
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -1,18 +1,16 @@
 package vn.uit.lms.service.helper;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-
-import java.time.Year;
-import java.util.UUID;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @Service("studentCodeGenerator")
-public class StudentCodeGenerator implements CodeGenerator {
+public class StudentCodeGenerator extends BlockCodeGenerator {
 
-    @Override
-    public String generate() {
-        String year = String.valueOf(Year.now().getValue()).substring(2);
-        String random = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        return String.format("STU%s%s", year, random);
+    public StudentCodeGenerator(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.code.block-size:100}") int blockSize) {
+        super("STU", jdbcTemplate, transactionManager, blockSize);
     }
 }
-
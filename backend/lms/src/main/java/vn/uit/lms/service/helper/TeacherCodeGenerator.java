@@ -1,21 +1,16 @@
 package vn.uit.lms.service.helper;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-
-import java.time.Year;
-import java.util.UUID;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @Service("teacherCodeGenerator")
-public class TeacherCodeGenerator implements CodeGenerator {
-
-    @Override
-    public String generate() {
+public class TeacherCodeGenerator extends BlockCodeGenerator {
 
-        String year = String.valueOf(Year.now().getValue()).substring(2);
-        String random = UUID.randomUUID().toString()
-                .replace("-", "")
-                .substring(0, 6)
-                .toUpperCase();
-        return String.format("TEA%s%s", year, random);
+    public TeacherCodeGenerator(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.code.block-size:100}") int blockSize) {
+        super("TEA", jdbcTemplate, transactionManager, blockSize);
     }
 }
@@ -0,0 +1,417 @@
+package vn.uit.lms.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.uit.lms.service.availability.AccountAvailabilityService;
+import vn.uit.lms.service.helper.StudentCodeGenerator;
+import vn.uit.lms.service.helper.TeacherCodeGenerator;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.ExportFormat;
+import vn.uit.lms.shared.constant.Language;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.dto.request.account.AccountImportRow;
+import vn.uit.lms.shared.dto.response.account.AccountImportResponse;
+import vn.uit.lms.shared.exception.InvalidFileException;
+import vn.uit.lms.shared.util.SecurityUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bulk creation of student and teacher accounts from a CSV or NDJSON file.
+ * <p>
+ * The file is read as a stream and processed in chunks of {@code app.import.chunk-size} rows:
+ * rows are validated in parallel, checked for duplicates inside the file and against existing
+ * accounts with one set-based query, their passwords are BCrypt-hashed on a bounded pool
+ * ({@code app.import.hash-threads}), and the accounts and their student/teacher profiles are
+ * inserted with multi-row {@code INSERT ... ON CONFLICT DO NOTHING} statements in one
+ * transaction per chunk. Rows that fail any step are reported with their line number; the rest
+ * of the file is still imported.
+ * </p>
+ * Imported accounts are created ACTIVE (teachers pre-approved by the importing admin) and no
+ * activation emails are sent.
+ */
+@Service
+public class AccountImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountImportService.class);
+
+    private static final int MAX_CHUNK_SIZE = 3000;     // keeps multi-row inserts under the 32767 bind parameter limit
+    private static final int CODE_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final StudentCodeGenerator studentCodeGenerator;
+    private final TeacherCodeGenerator teacherCodeGenerator;
+    private final AccountAvailabilityService accountAvailabilityService;
+    private final ExecutorService pool;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public AccountImportService(JdbcTemplate jdbcTemplate,
+                                NamedParameterJdbcTemplate namedJdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                PasswordEncoder passwordEncoder,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                StudentCodeGenerator studentCodeGenerator,
+                                TeacherCodeGenerator teacherCodeGenerator,
+                                AccountAvailabilityService accountAvailabilityService,
+                                @Value("${app.import.hash-threads:0}") int hashThreads,
+                                @Value("${app.import.chunk-size:1000}") int chunkSize,
+                                @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.studentCodeGenerator = studentCodeGenerator;
+        this.teacherCodeGenerator = teacherCodeGenerator;
+        this.accountAvailabilityService = accountAvailabilityService;
+        this.chunkSize = Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        this.maxReportedErrors = maxReportedErrors;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "account-import-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public AccountImportResponse importAccounts(InputStream input, ExportFormat format) {
+        long start = System.nanoTime();
+        Long adminId = SecurityUtils.getCurrentUserId().orElse(null);
+        String adminLogin = SecurityUtils.getCurrentUserLogin().orElse("");
+        Report report = new Report(maxReportedErrors);
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            ImportRowReader reader = ImportRowReader.open(format, in, objectMapper);
+            List<ImportRowReader.ParsedRow> chunk = new ArrayList<>(chunkSize);
+            ImportRowReader.ParsedRow parsed;
+            while ((parsed = reader.next()) != null) {
+                report.total++;
+                if (parsed.error() != null) {
+                    report.fail(parsed.line(), parsed.row(), parsed.error());
+                    continue;
+                }
+                chunk.add(parsed);
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, seenUsernames, seenEmails, adminId, adminLogin, report);
+                    chunk.clear();
+                }
+            }
+            processChunk(chunk, seenUsernames, seenEmails, adminId, adminLogin, report);
+        } catch (IOException e) {
+            throw new InvalidFileException("Failed to read import file: " + e.getMessage());
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Imported {} of {} accounts in {} ms ({} failed)", report.imported, report.total, durationMs, report.failed);
+
+        return AccountImportResponse.builder()
+                .total(report.total)
+                .imported(report.imported)
+                .failed(report.failed)
+                .errorsTruncated(report.failed > report.errors.size())
+                .durationMs(durationMs)
+                .errors(report.errors)
+                .build();
+    }
+
+    private void processChunk(List<ImportRowReader.ParsedRow> chunk,
+                              Set<String> seenUsernames,
+                              Set<String> seenEmails,
+                              Long adminId,
+                              String adminLogin,
+                              Report report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // 1. Bean validation, in parallel
+        List<String> violations = parallel(chunk, p -> firstViolation(p.row()));
+        List<PendingRow> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ImportRowReader.ParsedRow p = chunk.get(i);
+            if (violations.get(i) != null) {
+                report.fail(p.line(), p.row(), violations.get(i));
+            } else {
+                valid.add(new PendingRow(p.line(), p.row()));
+            }
+        }
+
+        // 2. Duplicates inside the file, then against existing accounts (one query)
+        List<PendingRow> unique = new ArrayList<>(valid.size());
+        for (PendingRow p : valid) {
+            if (!seenUsernames.add(p.usernameKey())) {
+                report.fail(p.line, p.row, "Duplicate username in file");
+            } else if (!seenEmails.add(p.emailKey())) {
+                report.fail(p.line, p.row, "Duplicate email in file");
+            } else {
+                unique.add(p);
+            }
+        }
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        findExisting(unique, takenUsernames, takenEmails);
+
+        List<PendingRow> fresh = new ArrayList<>(unique.size());
+        for (PendingRow p : unique) {
+            if (takenUsernames.contains(p.usernameKey())) {
+                report.fail(p.line, p.row, "Username already exists");
+            } else if (takenEmails.contains(p.emailKey())) {
+                report.fail(p.line, p.row, "Email already exists");
+            } else {
+                fresh.add(p);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // 3. Password hashing on the bounded pool
+        List<String> hashes = parallel(fresh, p -> passwordEncoder.encode(p.row.getPassword()));
+        for (int i = 0; i < fresh.size(); i++) {
+            fresh.get(i).passwordHash = hashes.get(i);
+        }
+
+        // 4. Insert accounts and profiles
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(fresh, adminId, adminLogin));
+        } catch (RuntimeException e) {
+            log.error("Import chunk of {} rows failed", fresh.size(), e);
+            fresh.forEach(p -> p.error = "Insert failed: " + e.getMessage());
+        }
+        for (PendingRow p : fresh) {
+            if (p.error != null) {
+                report.fail(p.line, p.row, p.error);
+            } else {
+                accountAvailabilityService.recordAccount(p.row.getUsername(), p.row.getEmail());
+                report.imported++;
+            }
+        }
+    }
+
+    private void findExisting(List<PendingRow> rows, Set<String> takenUsernames, Set<String> takenEmails) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> usernames = rows.stream().map(PendingRow::usernameKey).toList();
+        List<String> emails = rows.stream().map(PendingRow::emailKey).toList();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("usernames", usernames)
+                .addValue("emails", emails);
+        namedJdbcTemplate.query("""
+                SELECT username_lower, email_lower FROM accounts
+                WHERE username_lower IN (:usernames) OR email_lower IN (:emails)
+                """, params, rs -> {
+            takenUsernames.add(rs.getString(1));
+            takenEmails.add(rs.getString(2));
+        });
+    }
+
+    private void insert(List<PendingRow> rows, Long adminId, String adminLogin) {
+        Timestamp now = Timestamp.from(Instant.now());
+
+        // Accounts; rows taken by a concurrent registration are skipped by ON CONFLICT and reported
+        StringBuilder sql = new StringBuilder("""
+                INSERT INTO accounts (username, email, password_hash, role, status, lang_key, created_at, updated_at, created_by)
+                VALUES\s""");
+        List<Object> args = new ArrayList<>(rows.size() * 9);
+        for (int i = 0; i < rows.size(); i++) {
+            PendingRow p = rows.get(i);
+            sql.append(i == 0 ? "" : ",").append("(?,?,?,?,?,?,?,?,?)");
+            args.add(p.row.getUsername());
+            args.add(p.row.getEmail());
+            args.add(p.passwordHash);
+            args.add(p.row.getRole().name());
+            args.add(AccountStatus.ACTIVE.name());
+            args.add(p.row.getLangKey() != null ? p.row.getLangKey() : Language.VI.getCode());
+            args.add(now);
+            args.add(now);
+            args.add(adminLogin);
+        }
+        sql.append(" ON CONFLICT DO NOTHING RETURNING id, username");
+
+        Map<String, PendingRow> byUsername = new HashMap<>();
+        rows.forEach(p -> byUsername.put(p.row.getUsername(), p));
+        jdbcTemplate.query(sql.toString(), rs -> {
+            byUsername.get(rs.getString(2)).accountId = rs.getLong(1);
+        }, args.toArray());
+
+        List<PendingRow> students = new ArrayList<>();
+        List<PendingRow> teachers = new ArrayList<>();
+        for (PendingRow p : rows) {
+            if (p.accountId == null) {
+                p.error = "Username or email already exists";
+            } else if (p.row.getRole() == Role.TEACHER) {
+                teachers.add(p);
+            } else {
+                students.add(p);
+            }
+        }
+
+        insertProfiles(students, "students", "student_code", studentCodeGenerator::generate,
+                List.of(), p -> List.of(), now, adminLogin);
+        insertProfiles(teachers, "teachers", "teacher_code", teacherCodeGenerator::generate,
+                List.of("approved", "approved_by", "approved_at"), p -> Arrays.asList(true, adminId, now), now, adminLogin);
+    }
+
+    /**
+     * Inserts profiles for newly created accounts, retrying rows whose generated code collided
+     * with an existing one.
+     */
+    private void insertProfiles(List<PendingRow> rows,
+                                String table,
+                                String codeColumn,
+                                Supplier<String> codes,
+                                List<String> extraColumns,
+                                Function<PendingRow, List<Object>> extraValues,
+                                Timestamp now,
+                                String adminLogin) {
+        List<PendingRow> pending = rows;
+        for (int attempt = 0; attempt < CODE_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                    .append(" (account_id, full_name, phone, ").append(codeColumn)
+                    .append(", created_at, updated_at, created_by");
+            extraColumns.forEach(c -> sql.append(", ").append(c));
+            sql.append(") VALUES ");
+            String placeholders = "(?,?,?,?,?,?,?" + ",?".repeat(extraColumns.size()) + ")";
+
+            List<Object> args = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                PendingRow p = pending.get(i);
+                sql.append(i == 0 ? "" : ",").append(placeholders);
+                args.add(p.accountId);
+                args.add(p.row.getFullName());
+                args.add(p.row.getPhone());
+                args.add(codes.get());
+                args.add(now);
+                args.add(now);
+                args.add(adminLogin);
+                args.addAll(extraValues.apply(p));
+            }
+            sql.append(" ON CONFLICT (").append(codeColumn).append(") DO NOTHING RETURNING account_id");
+
+            Set<Long> inserted = new HashSet<>();
+            jdbcTemplate.query(sql.toString(), rs -> {
+                inserted.add(rs.getLong(1));
+            }, args.toArray());
+            pending = pending.stream().filter(p -> !inserted.contains(p.accountId)).toList();
+        }
+        if (!pending.isEmpty()) {
+            // Accounts without a profile must not be committed
+            throw new IllegalStateException("Could not allocate unique " + codeColumn + " for " + pending.size() + " rows");
+        }
+    }
+
+    private String firstViolation(AccountImportRow row) {
+        if (row.getRole() == Role.ADMIN) {
+            return "ADMIN accounts cannot be imported";
+        }
+        Set<ConstraintViolation<AccountImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<AccountImportRow> v = violations.iterator().next();
+        return v.getPropertyPath() + ": " + v.getMessage();
+    }
+
+    private <T, R> List<R> parallel(List<T> items, Function<T, R> task) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(item), pool));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static final class PendingRow {
+        private final long line;
+        private final AccountImportRow row;
+        private String passwordHash;
+        private Long accountId;
+        private String error;
+
+        private PendingRow(long line, AccountImportRow row) {
+            this.line = line;
+            this.row = row;
+        }
+
+        private String usernameKey() {
+            return row.getUsername().toLowerCase(Locale.ROOT);
+        }
+
+        private String emailKey() {
+            return row.getEmail().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class Report {
+        private final int maxErrors;
+        private final List<AccountImportResponse.RowError> errors = new ArrayList<>();
+        private int total;
+        private int imported;
+        private int failed;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(long line, AccountImportRow row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(AccountImportResponse.RowError.builder()
+                        .line(line)
+                        .username(row != null ? row.getUsername() : null)
+                        .email(row != null ? row.getEmail() : null)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package vn.uit.lms.service.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import vn.uit.lms.shared.constant.ExportFormat;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.dto.request.account.AccountImportRow;
+import vn.uit.lms.shared.exception.InvalidFileException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads import rows one at a time from a CSV (with a header line) or NDJSON stream.
+ * <p>
+ * Malformed rows are returned with an error rather than thrown, so one bad line never
+ * stops the import. A CSV quote left open runs to the end of input; it is reported as the
+ * error of its row and ends the stream, and the rows read before it are still imported.
+ * </p>
+ */
+abstract class ImportRowReader {
+
+    record ParsedRow(long line, AccountImportRow row, String error) {
+    }
+
+    /**
+     * @return the next row, or {@code null} at end of input
+     */
+    abstract ParsedRow next() throws IOException;
+
+    static ImportRowReader open(ExportFormat format, BufferedReader in, ObjectMapper objectMapper) throws IOException {
+        return format == ExportFormat.NDJSON ? new Ndjson(in, objectMapper) : new Csv(in);
+    }
+
+    private static final class Ndjson extends ImportRowReader {
+        private final BufferedReader in;
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        private Ndjson(BufferedReader in, ObjectMapper objectMapper) {
+            this.in = in;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        ParsedRow next() throws IOException {
+            String text;
+            do {
+                text = in.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+
+            try {
+                return new ParsedRow(line, objectMapper.readValue(text, AccountImportRow.class), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(line, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 CSV; quoted fields may contain separators, doubled quotes and line breaks.
+     * Header names are matched case-insensitively, ignoring underscores ({@code full_name} = {@code fullName}).
+     */
+    private static final class Csv extends ImportRowReader {
+        private final BufferedReader in;
+        private final String[] header;
+        private long line;
+        private boolean unterminated;
+
+        private Csv(BufferedReader in) throws IOException {
+            this.in = in;
+            List<String> names = readRecord();
+            if (names == null) {
+                throw new InvalidFileException("Import file is empty");
+            }
+            if (unterminated) {
+                throw new InvalidFileException("Unterminated quoted field in the header");
+            }
+            this.header = new String[names.size()];
+            for (int i = 0; i < header.length; i++) {
+                header[i] = names.get(i).strip().replace("_", "").toLowerCase(Locale.ROOT);
+            }
+        }
+
+        @Override
+        ParsedRow next() throws IOException {
+            List<String> fields;
+            long start;
+            do {
+                if (unterminated) {
+                    return null;
+                }
+                start = line + 1;
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+                if (unterminated) {
+                    return new ParsedRow(start, null, "Unterminated quoted field; the rest of the file was not read");
+                }
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+
+            if (fields.size() != header.length) {
+                return new ParsedRow(start, null, "Expected " + header.length + " fields but found " + fields.size());
+            }
+
+            AccountImportRow row = new AccountImportRow();
+            for (int i = 0; i < header.length; i++) {
+                String value = fields.get(i).strip();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                switch (header[i]) {
+                    case "username" -> row.setUsername(value);
+                    case "email" -> row.setEmail(value);
+                    case "password" -> row.setPassword(value);
+                    case "fullname" -> row.setFullName(value);
+                    case "phone" -> row.setPhone(value);
+                    case "langkey" -> row.setLangKey(value);
+                    case "role" -> {
+                        try {
+                            row.setRole(Role.fromString(value));
+                        } catch (IllegalArgumentException e) {
+                            return new ParsedRow(start, null, e.getMessage());
+                        }
+                    }
+                    default -> {
+                        // unknown columns are ignored
+                    }
+                }
+            }
+            return new ParsedRow(start, row, null);
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = in.read();
+            if (c == -1) {
+                return null;
+            }
+            line++;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        unterminated = true;
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    if (c == '"') {
+                        in.mark(1);
+                        int peek = in.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            in.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package vn.uit.lms.service.profile;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.uit.lms.core.entity.Account;
+import vn.uit.lms.core.entity.BaseProfile;
+import vn.uit.lms.core.repository.AccountRepository;
+import vn.uit.lms.core.repository.StudentRepository;
+import vn.uit.lms.core.repository.TeacherRepository;
+import vn.uit.lms.shared.dto.response.MeResponse;
+import vn.uit.lms.shared.dto.response.account.AccountProfileResponse;
+import vn.uit.lms.shared.entity.PersonBase;
+import vn.uit.lms.shared.exception.ResourceNotFoundException;
+import vn.uit.lms.shared.exception.UserNotActivatedException;
+import vn.uit.lms.shared.mapper.AccountMapper;
+import vn.uit.lms.shared.mapper.StudentMapper;
+import vn.uit.lms.shared.mapper.TeacherMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local cache of the "current user" payloads served by {@code /auth/me} and {@code /accounts/me}.
+ * <p>
+ * Entries are keyed by the account id from the access token, so a hit costs no database access.
+ * Every write to an account or its student/teacher profile must call {@link #evict}; the TTL
+ * ({@code app.profile-cache.ttl}) only bounds staleness from writes made by other nodes.
+ * At most {@code app.profile-cache.max-entries} accounts are held; when full, expired entries
+ * are swept and, if that frees nothing, snapshots are served without being cached.
+ * </p>
+ */
+@Service
+public class ProfileCache {
+
+    /**
+     * Immutable view of one account; the responses must not be modified by callers.
+     *
+     * @param etag strong validator derived from the account's and profile's {@code updatedAt}
+     */
+    public record Snapshot(String etag, MeResponse me, AccountProfileResponse profile) {
+    }
+
+    /**
+     * @param snapshot {@code null} while a load is in flight; such a marker is never served
+     */
+    private record Entry(Snapshot snapshot, long expiresAt) {
+    }
+
+    private final AccountRepository accountRepository;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public ProfileCache(AccountRepository accountRepository,
+                        StudentRepository studentRepository,
+                        TeacherRepository teacherRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.profile-cache.ttl:PT10M}") Duration ttl,
+                        @Value("${app.profile-cache.max-entries:50000}") int maxEntries) {
+        this.accountRepository = accountRepository;
+        this.studentRepository = studentRepository;
+        this.teacherRepository = teacherRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+
+        Gauge.builder("lms.profile.cache.size", entries, ConcurrentHashMap::size)
+                .description("Accounts held in the current-user profile cache")
+                .register(meterRegistry);
+        this.hitCounter = Counter.builder("lms.profile.cache.requests")
+                .tag("result", "hit")
+                .description("Current-user profile lookups")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("lms.profile.cache.requests")
+                .tag("result", "miss")
+                .description("Current-user profile lookups")
+                .register(meterRegistry);
+    }
+
+    public Snapshot get(Long accountId) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(accountId);
+        if (entry != null && entry.snapshot() != null && now - entry.expiresAt() < 0) {
+            hitCounter.increment();
+            return entry.snapshot();
+        }
+        missCounter.increment();
+
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> now - e.expiresAt() >= 0);
+            if (entries.size() >= maxEntries) {
+                return load(accountId);
+            }
+        }
+
+        // An eviction of this account while loading removes the marker, and the result is then
+        // served without being cached; evictions of other accounts do not interfere
+        Entry loading = new Entry(null, now);
+        entries.put(accountId, loading);
+        Snapshot snapshot;
+        try {
+            snapshot = load(accountId);
+        } catch (RuntimeException e) {
+            entries.computeIfPresent(accountId, (id, current) -> current == loading ? null : current);
+            throw e;
+        }
+        entries.computeIfPresent(accountId, (id, current) -> current == loading
+                ? new Entry(snapshot, now + ttlNanos)
+                : current);
+        return snapshot;
+    }
+
+    /**
+     * Drops the cached account now and again once the current transaction commits, so no
+     * request can re-cache the pre-commit state in between.
+     */
+    public void evict(Long accountId) {
+        evictNow(accountId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(accountId);
+                }
+            });
+        }
+    }
+
+    public void evict(Collection<Long> accountIds) {
+        accountIds.forEach(this::evict);
+    }
+
+    private void evictNow(Long accountId) {
+        entries.remove(accountId);
+    }
+
+    private Snapshot load(Long accountId) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+
+        return switch (account.getRole()) {
+            case STUDENT -> studentRepository.findByAccount(account)
+                    .map(student -> snapshot(account, student, StudentMapper.toProfileResponse(student)))
+                    .orElseThrow(() -> new UserNotActivatedException("Account not activated"));
+            case TEACHER -> teacherRepository.findByAccount(account)
+                    .map(teacher -> snapshot(account, teacher, TeacherMapper.toProfileResponse(teacher)))
+                    .orElseThrow(() -> new UserNotActivatedException("Account not activated"));
+            case ADMIN -> snapshot(account, null, new AccountProfileResponse.Profile());
+        };
+    }
+
+    private static <P extends PersonBase & BaseProfile> Snapshot snapshot(Account account,
+                                                                          P profile,
+                                                                          AccountProfileResponse.Profile profileResponse) {
+        MeResponse me = MeResponse.builder()
+                .accountId(account.getId())
+                .username(account.getUsername())
+                .email(account.getEmail())
+                .role(account.getRole())
+                .avatarUrl(account.getAvatarUrl())
+                .lastLoginAt(account.getLastLoginAt())
+                .status(account.getStatus())
+                .build();
+        if (profile != null) {
+            me.setFullName(profile.getFullName());
+            me.setGender(profile.getGender());
+            me.setBio(profile.getBio());
+            me.setBirthday(profile.getBirthDate());
+        }
+
+        String etag = "\"" + account.getId()
+                + "-" + stamp(account.getUpdatedAt())
+                + "-" + stamp(profile == null ? null : profile.getUpdatedAt()) + "\"";
+        return new Snapshot(etag, me, AccountMapper.toProfileResponse(account, profileResponse));
+    }
+
+    private static String stamp(Instant updatedAt) {
+        return updatedAt == null
+                ? "0"
+                : Long.toString(updatedAt.getEpochSecond(), 36) + "." + Integer.toString(updatedAt.getNano(), 36);
+    }
+}
@@ -0,0 +1,96 @@
+package vn.uit.lms.service.query;
+
+import vn.uit.lms.shared.exception.QueryRejectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal lexer for springfilter expressions, e.g. {@code username ~~ 'jo%' and status : 'ACTIVE'}.
+ * <p>
+ * It only needs to recognise identifiers, quoted literals and operators well enough for
+ * {@link QueryGuard} to find field references and rewrite them; the actual parsing is still
+ * done by springfilter.
+ * </p>
+ */
+final class FilterTokenizer {
+
+    enum Type { IDENT, STRING, NUMBER, SYMBOL }
+
+    static final class Token {
+        final Type type;
+        final String text;
+        final int start;
+        final int end;
+
+        Token(Type type, String text, int start, int end) {
+            this.type = type;
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean isSymbol(String symbol) {
+            return type == Type.SYMBOL && text.equals(symbol);
+        }
+
+        /**
+         * @return the content of a quoted literal without its quotes
+         */
+        String unquoted() {
+            return text.substring(1, text.length() - 1);
+        }
+    }
+
+    private static final String OPERATOR_CHARS = "~!:<>=&|";
+
+    private FilterTokenizer() {}
+
+    static List<Token> tokenize(String input) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int n = input.length();
+
+        while (i < n) {
+            char c = input.charAt(i);
+            int start = i;
+
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                i++;
+                while (i < n && input.charAt(i) != c) {
+                    if (input.charAt(i) == '\\') i++;
+                    i++;
+                }
+                if (i >= n) {
+                    throw new QueryRejectedException("Unterminated string literal in filter");
+                }
+                i++;
+                tokens.add(new Token(Type.STRING, input.substring(start, i), start, i));
+            } else if (Character.isLetter(c) || c == '_') {
+                while (i < n && (Character.isLetterOrDigit(input.charAt(i)) || input.charAt(i) == '_' || input.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(Type.IDENT, input.substring(start, i), start, i));
+            } else if (Character.isDigit(c) || c == '-' || c == '.') {
+                i++;
+                while (i < n && (Character.isDigit(input.charAt(i)) || input.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(Type.NUMBER, input.substring(start, i), start, i));
+            } else if (OPERATOR_CHARS.indexOf(c) >= 0) {
+                while (i < n && OPERATOR_CHARS.indexOf(input.charAt(i)) >= 0) {
+                    i++;
+                }
+                tokens.add(new Token(Type.SYMBOL, input.substring(start, i), start, i));
+            } else if ("()[],".indexOf(c) >= 0) {
+                i++;
+                tokens.add(new Token(Type.SYMBOL, String.valueOf(c), start, i));
+            } else {
+                throw new QueryRejectedException("Unexpected character '" + c + "' in filter");
+            }
+        }
+        return tokens;
+    }
+}
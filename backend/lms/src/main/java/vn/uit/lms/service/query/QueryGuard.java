@@ -0,0 +1,236 @@
+package vn.uit.lms.service.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.turkraft.springfilter.converter.FilterSpecificationConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.uit.lms.shared.exception.QueryRejectedException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guard layer around springfilter specifications used by admin listing endpoints.
+ * <p>
+ * - Validates filter and sort fields against a {@link QueryPolicy} allowlist.<br>
+ * - Refuses leading-wildcard LIKE matches on fields that cannot serve them from an index.<br>
+ * - Rewrites case-insensitive matches ({@code ~~}) onto lower-cased indexed columns.<br>
+ * - Runs the query in a read-only transaction with a per-request {@code statement_timeout}.<br>
+ * - Optionally asks PostgreSQL for the plan cost first and rejects or throttles expensive queries.
+ * </p>
+ */
+@Service
+public class QueryGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryGuard.class);
+
+    private static final int MAX_FILTER_LENGTH = 1000;
+
+    private static final Set<String> KEYWORDS = Set.of("and", "or", "not", "is", "null", "empty", "in", "true", "false");
+
+    private final FilterSpecificationConverter filterSpecificationConverter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final Semaphore expensiveQueryPermits;
+
+    @Value("${app.query-guard.statement-timeout-ms:5000}")
+    private long statementTimeoutMs;
+
+    @Value("${app.query-guard.explain.enabled:false}")
+    private boolean explainEnabled;
+
+    @Value("${app.query-guard.explain.max-cost:100000}")
+    private double maxCost;
+
+    @Value("${app.query-guard.explain.throttle-cost:10000}")
+    private double throttleCost;
+
+    @Value("${app.query-guard.explain.throttle-wait-ms:2000}")
+    private long throttleWaitMs;
+
+    public QueryGuard(FilterSpecificationConverter filterSpecificationConverter,
+                      JdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager,
+                      ObjectMapper objectMapper,
+                      @Value("${app.query-guard.explain.throttle-permits:2}") int throttlePermits) {
+        this.filterSpecificationConverter = filterSpecificationConverter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.expensiveQueryPermits = new Semaphore(throttlePermits);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Validates and rewrites a raw springfilter expression, then converts it to a specification.
+     *
+     * @param policy rules for the target entity
+     * @param filter raw {@code filter} request parameter, may be {@code null}
+     * @return a specification, never {@code null} (matches everything when no filter is given)
+     * @throws QueryRejectedException if the filter violates the policy or cannot be parsed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Specification<T> toSpecification(QueryPolicy policy, String filter) {
+        if (filter == null || filter.isBlank()) {
+            return (root, query, cb) -> null;
+        }
+        if (filter.length() > MAX_FILTER_LENGTH) {
+            throw new QueryRejectedException("Filter is too long");
+        }
+
+        String rewritten = rewrite(policy, filter);
+        try {
+            return (Specification<T>) filterSpecificationConverter.convert(rewritten);
+        } catch (RuntimeException e) {
+            throw new QueryRejectedException("Invalid filter: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @throws QueryRejectedException if any sort property is not allowlisted
+     */
+    public void checkSort(QueryPolicy policy, Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!policy.isSortable(order.getProperty())) {
+                throw new QueryRejectedException("Sorting " + policy.getEntityName()
+                        + " by '" + order.getProperty() + "' is not allowed");
+            }
+        }
+    }
+
+    /**
+     * Runs {@code query} under the guard's statement timeout, after an optional cost probe
+     * of {@code spec} ordered by {@code sort}.
+     */
+    public <T, R> R execute(JpaSpecificationExecutor<T> repository,
+                            Specification<T> spec,
+                            Sort sort,
+                            Supplier<R> query) {
+        return readOnlyTransaction.execute(status -> {
+            // SET LOCAL only lasts until the end of this transaction
+            jdbcTemplate.execute("SET LOCAL statement_timeout = " + statementTimeoutMs);
+
+            boolean throttled = explainEnabled && admit(estimateCost(repository, spec, sort));
+            try {
+                return query.get();
+            } finally {
+                if (throttled) {
+                    expensiveQueryPermits.release();
+                }
+            }
+        });
+    }
+
+    String rewrite(QueryPolicy policy, String filter) {
+        List<FilterTokenizer.Token> tokens = FilterTokenizer.tokenize(filter);
+        StringBuilder out = new StringBuilder(filter);
+
+        // Walk backwards so that replacements do not shift the offsets of earlier tokens
+        for (int i = tokens.size() - 1; i >= 0; i--) {
+            FilterTokenizer.Token token = tokens.get(i);
+            if (token.type != FilterTokenizer.Type.IDENT || KEYWORDS.contains(token.text.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            boolean isFunction = i + 1 < tokens.size() && tokens.get(i + 1).isSymbol("(");
+            if (isFunction) {
+                continue;
+            }
+
+            String field = token.text;
+            if (!policy.isFilterable(field)) {
+                throw new QueryRejectedException("Filtering " + policy.getEntityName()
+                        + " by '" + field + "' is not allowed");
+            }
+
+            if (i + 2 >= tokens.size()) {
+                continue;
+            }
+            FilterTokenizer.Token operator = tokens.get(i + 1);
+            FilterTokenizer.Token value = tokens.get(i + 2);
+            boolean isLike = operator.isSymbol("~") || operator.isSymbol("~~");
+            if (!isLike || value.type != FilterTokenizer.Type.STRING) {
+                continue;
+            }
+
+            String pattern = value.unquoted();
+            if (!pattern.isEmpty() && "%*_".indexOf(pattern.charAt(0)) >= 0 && !policy.allowsLeadingWildcard(field)) {
+                throw new QueryRejectedException("Leading wildcard match on '" + field
+                        + "' cannot use an index; use a prefix match instead");
+            }
+
+            String normalized = policy.normalizedFieldOf(field);
+            if (operator.isSymbol("~~") && normalized != null) {
+                char quote = value.text.charAt(0);
+                out.replace(value.start, value.end, quote + pattern.toLowerCase(Locale.ROOT) + quote);
+                out.replace(operator.start, operator.end, "~");
+                out.replace(token.start, token.end, normalized);
+            }
+        }
+        return out.toString();
+    }
+
+    private double estimateCost(JpaSpecificationExecutor<?> repository, Specification<?> spec, Sort sort) {
+        @SuppressWarnings("unchecked")
+        JpaSpecificationExecutor<Object> executor = (JpaSpecificationExecutor<Object>) repository;
+        @SuppressWarnings("unchecked")
+        Specification<Object> probeSpec = (Specification<Object>) spec;
+
+        List<String> statements = SqlCaptureInspector.capture(
+                () -> executor.findBy(probeSpec, q -> q.sortBy(sort).limit(1).all()));
+        if (statements.isEmpty()) {
+            return 0;
+        }
+
+        // A failed EXPLAIN (e.g. GENERIC_PLAN on PostgreSQL < 16) must not abort the surrounding transaction
+        jdbcTemplate.execute("SAVEPOINT query_guard_probe");
+        try {
+            String plan = jdbcTemplate.queryForObject(
+                    "EXPLAIN (FORMAT JSON, GENERIC_PLAN) " + SqlCaptureInspector.toPositionalParameters(statements.get(0)),
+                    String.class);
+            jdbcTemplate.execute("RELEASE SAVEPOINT query_guard_probe");
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Total Cost").asDouble();
+        } catch (DataAccessException e) {
+            jdbcTemplate.execute("ROLLBACK TO SAVEPOINT query_guard_probe");
+            log.warn("Query cost probe skipped: {}", e.getMessage());
+            return 0;
+        } catch (Exception e) {
+            log.warn("Query cost probe returned an unreadable plan: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * @return {@code true} if a throttle permit was taken and must be released
+     */
+    private boolean admit(double cost) {
+        if (cost > maxCost) {
+            log.warn("Rejected query with estimated cost {} (max {})", cost, maxCost);
+            throw new QueryRejectedException("Query is too expensive; narrow the filter");
+        }
+        if (cost <= throttleCost) {
+            return false;
+        }
+        try {
+            if (expensiveQueryPermits.tryAcquire(throttleWaitMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new QueryRejectedException("Too many expensive queries are running; retry later");
+    }
+}
@@ -0,0 +1,20 @@
+package vn.uit.lms.service.query;
+
+/**
+ * Query policies for the entities exposed through filterable admin endpoints.
+ */
+public final class QueryPolicies {
+
+    /**
+     * Accounts: unique indexes on username/email (and their lower-cased twins),
+     * composite index on (created_at, id). role/status are low-cardinality enums.
+     */
+    public static final QueryPolicy ACCOUNTS = QueryPolicy.builder("Account")
+            .filterable("id", "username", "email", "role", "status", "createdAt")
+            .sortable("id", "username", "email", "createdAt")
+            .normalized("username", "usernameLower")
+            .normalized("email", "emailLower")
+            .build();
+
+    private QueryPolicies() {}
+}
@@ -0,0 +1,89 @@
+package vn.uit.lms.service.query;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-entity rules applied by {@link QueryGuard} to user-supplied filter and sort expressions.
+ * <p>
+ * Only allowlisted fields may be filtered or sorted on, leading-wildcard matches are refused
+ * unless the field is backed by an index able to serve them, and case-insensitive matches
+ * can be redirected onto a normalized (lower-cased, indexed) twin column.
+ * </p>
+ */
+public final class QueryPolicy {
+
+    private final String entityName;
+    private final Set<String> filterableFields;
+    private final Set<String> sortableFields;
+    private final Set<String> wildcardFields;
+    private final Map<String, String> normalizedFields;
+
+    private QueryPolicy(Builder builder) {
+        this.entityName = builder.entityName;
+        this.filterableFields = Collections.unmodifiableSet(builder.filterableFields);
+        this.sortableFields = Collections.unmodifiableSet(builder.sortableFields);
+        this.wildcardFields = Collections.unmodifiableSet(builder.wildcardFields);
+        this.normalizedFields = Collections.unmodifiableMap(builder.normalizedFields);
+    }
+
+    public static Builder builder(String entityName) {
+        return new Builder(entityName);
+    }
+
+    public String getEntityName() { return entityName; }
+
+    public boolean isFilterable(String field) { return filterableFields.contains(field); }
+
+    public boolean isSortable(String field) { return sortableFields.contains(field); }
+
+    public boolean allowsLeadingWildcard(String field) { return wildcardFields.contains(field); }
+
+    /**
+     * @return the lower-cased twin of {@code field}, or {@code null} if it has none
+     */
+    public String normalizedFieldOf(String field) { return normalizedFields.get(field); }
+
+    public static final class Builder {
+        private final String entityName;
+        private final Set<String> filterableFields = new HashSet<>();
+        private final Set<String> sortableFields = new HashSet<>();
+        private final Set<String> wildcardFields = new HashSet<>();
+        private final Map<String, String> normalizedFields = new HashMap<>();
+
+        private Builder(String entityName) {
+            this.entityName = entityName;
+        }
+
+        public Builder filterable(String... fields) {
+            Collections.addAll(filterableFields, fields);
+            return this;
+        }
+
+        public Builder sortable(String... fields) {
+            Collections.addAll(sortableFields, fields);
+            return this;
+        }
+
+        public Builder leadingWildcard(String... fields) {
+            Collections.addAll(wildcardFields, fields);
+            return this;
+        }
+
+        /**
+         * Redirects case-insensitive matches on {@code field} to {@code lowerCasedField}.
+         */
+        public Builder normalized(String field, String lowerCasedField) {
+            normalizedFields.put(field, lowerCasedField);
+            filterableFields.add(lowerCasedField);
+            return this;
+        }
+
+        public QueryPolicy build() {
+            return new QueryPolicy(this);
+        }
+    }
+}
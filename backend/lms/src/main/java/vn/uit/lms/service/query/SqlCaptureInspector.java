@@ -0,0 +1,64 @@
+package vn.uit.lms.service.query;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate {@link StatementInspector} that can record the SQL generated for a query
+ * without fetching any rows.
+ * <p>
+ * Outside of {@link #capture(Runnable)} it is a no-op. Inside, each statement is recorded and
+ * wrapped in {@code LIMIT 0}, so the query is planned by PostgreSQL but returns nothing.
+ * </p>
+ */
+public class SqlCaptureInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured == null) {
+            return sql;
+        }
+        captured.add(sql);
+        return "select * from (" + sql + ") sql_capture limit 0";
+    }
+
+    /**
+     * Runs {@code action} on the current thread and returns the SQL it issued.
+     */
+    public static List<String> capture(Runnable action) {
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+
+    /**
+     * Replaces JDBC {@code ?} placeholders (outside string literals) with PostgreSQL {@code $n} ones.
+     */
+    public static String toPositionalParameters(String sql) {
+        StringBuilder out = new StringBuilder(sql.length() + 16);
+        boolean inLiteral = false;
+        int index = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                out.append('$').append(++index);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package vn.uit.lms.service.schedule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.uit.lms.core.repository.EmailVerificationRepository;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class EmailVerificationCleanupService {
+
+    private final EmailVerificationRepository emailVerificationRepository;
+    private final Timer runTimer;
+    private final Counter deletedCounter;
+
+    public EmailVerificationCleanupService(EmailVerificationRepository emailVerificationRepository, MeterRegistry meterRegistry) {
+        this.emailVerificationRepository = emailVerificationRepository;
+        this.runTimer = Timer.builder("lms.retention.run")
+                .tag("job", "email_verifications")
+                .description("Retention job duration")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("lms.retention.deleted")
+                .tag("job", "email_verifications")
+                .description("Rows removed by retention jobs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "0 30 0 * * ?")
+    @Transactional
+    public void removeExpiredTokens() {
+        Instant now = Instant.now();
+        long start = System.nanoTime();
+        long deleted = emailVerificationRepository.deleteAllByExpiresAtBefore(now);
+        runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        deletedCounter.increment(deleted);
+    }
+}
@@ -1,25 +1,42 @@
 package vn.uit.lms.service.schedule;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.uit.lms.core.repository.RefreshTokenRepository;
 
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class RefreshTokenCleanupService {
 
     private final RefreshTokenRepository refreshTokenRepository;
+    private final Timer runTimer;
+    private final Counter deletedCounter;
 
-    public RefreshTokenCleanupService(RefreshTokenRepository refreshTokenRepository) {
+    public RefreshTokenCleanupService(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry) {
         this.refreshTokenRepository = refreshTokenRepository;
+        this.runTimer = Timer.builder("lms.retention.run")
+                .tag("job", "refresh_tokens")
+                .description("Retention job duration")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("lms.retention.deleted")
+                .tag("job", "refresh_tokens")
+                .description("Rows removed by retention jobs")
+                .register(meterRegistry);
     }
 
     @Scheduled(cron = "0 0 0 * * ?")
     @Transactional
     public void removeExpiredTokens() {
         Instant now = Instant.now();
-        refreshTokenRepository.deleteAllByExpiresAtBefore(now);
+        long start = System.nanoTime();
+        long deleted = refreshTokenRepository.deleteAllByExpiresAtBefore(now);
+        runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        deletedCounter.increment(deleted);
     }
 }
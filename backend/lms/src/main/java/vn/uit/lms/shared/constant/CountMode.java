@@ -0,0 +1,13 @@
+package vn.uit.lms.shared.constant;
+
+/**
+ * How the total number of matching rows is computed for cursor-based listings.
+ */
+public enum CountMode {
+    /** Skip the count entirely (cheapest). */
+    NONE,
+    /** Use the planner statistics in pg_class.reltuples (unfiltered listings only). */
+    ESTIMATED,
+    /** Run an exact COUNT(*) with the same filter. */
+    EXACT
+}
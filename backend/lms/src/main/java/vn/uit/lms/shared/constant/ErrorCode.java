@@ -5,6 +5,7 @@ public class ErrorCode {
     public static final String VALIDATION_ERROR = "VALIDATION_ERROR";
     public static final String BAD_REQUEST = "BAD_REQUEST";
     public static final String DUPLICATE_RESOURCE = "DUPLICATE_RESOURCE";
+    public static final String INVALID_IDEMPOTENCY_KEY = "INVALID_IDEMPOTENCY_KEY";
 
     // 401 - Unauthorized
     public static final String UNAUTHORIZED = "UNAUTHORIZED";
@@ -20,6 +21,19 @@ public class ErrorCode {
     public static final String RESOURCE_NOT_FOUND = "RESOURCE_NOT_FOUND";
     public static final String ACCOUNT_NOT_FOUND = "ACCOUNT_NOT_FOUND";
 
+    // 409 - Conflict
+    public static final String REQUEST_IN_PROGRESS = "REQUEST_IN_PROGRESS";
+
+    // 413 - Payload Too Large
+    public static final String PAYLOAD_TOO_LARGE = "PAYLOAD_TOO_LARGE";
+    public static final String IDEMPOTENT_BODY_TOO_LARGE = "IDEMPOTENT_BODY_TOO_LARGE";
+
+    // 422 - Unprocessable Entity
+    public static final String IDEMPOTENCY_KEY_REUSED = "IDEMPOTENCY_KEY_REUSED";
+
+    // 429 - Too Many Requests
+    public static final String TOO_MANY_REQUESTS = "TOO_MANY_REQUESTS";
+
     // 500 - Internal Server Error
     public static final String INTERNAL_ERROR = "INTERNAL_ERROR";
     public static final String DATABASE_ERROR = "DATABASE_ERROR";
@@ -0,0 +1,23 @@
+package vn.uit.lms.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) page. {@code nextCursor} is an opaque token to pass back as {@code cursor}
+ * to fetch the following page; it is {@code null} when there are no more rows.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long totalItems;        // null when the count was skipped
+    private boolean totalEstimated; // true when totalItems comes from planner statistics
+}
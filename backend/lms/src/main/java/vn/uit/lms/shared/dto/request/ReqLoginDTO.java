@@ -22,6 +22,8 @@ public class ReqLoginDTO {
     private String password;
 
     //optional fields
+    /** Stable per-install id from the client; logins from the same device share one session. */
+    private String deviceId;
     private String deviceInfo;
     private String ipAddress;
 }
@@ -0,0 +1,46 @@
+package vn.uit.lms.shared.dto.request.account;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.uit.lms.shared.constant.Role;
+
+/**
+ * One account of a bulk import file; same rules as {@link vn.uit.lms.shared.dto.request.RegisterRequest}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountImportRow {
+
+    @NotBlank(message = "Username is required")
+    @Size(min = 3, max = 30, message = "Username must be between 3 and 30 characters")
+    @Pattern(
+            regexp = "^[^@]+$",
+            message = "Username cannot contain '@'"
+    )
+    private String username;
+
+    @NotBlank(message = "Email is required")
+    @Email(message = "Invalid email format")
+    private String email;
+
+    @NotBlank(message = "Password is required")
+    @Size(min = 6, max = 50, message = "Password must be at least 6 characters")
+    private String password;
+
+    @NotNull(message = "Role is required")
+    private Role role;
+
+    @NotBlank(message = "Full name is required")
+    @Size(max = 255)
+    @JsonAlias("full_name")
+    private String fullName;
+
+    @Size(max = 30)
+    private String phone;
+
+    private String langKey;
+}
@@ -0,0 +1,27 @@
+package vn.uit.lms.shared.dto.request.account;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.uit.lms.shared.constant.AccountStatus;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusChangeRequest {
+
+    @NotEmpty(message = "Account ids must not be empty")
+    @Size(max = 5000, message = "At most 5000 accounts per request")
+    private List<@NotNull Long> accountIds;
+
+    @NotNull(message = "Status must not be null")
+    private AccountStatus status;
+
+    @Size(max = 1000)
+    private String reason;
+}
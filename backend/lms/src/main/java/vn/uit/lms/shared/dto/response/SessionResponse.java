@@ -0,0 +1,25 @@
+package vn.uit.lms.shared.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A device currently signed in to the account.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionResponse {
+
+    private Long id;
+    private String deviceInfo;
+    private String ipAddress;
+    private Instant createdAt;
+    private Instant lastUsedAt;
+    private Instant expiresAt;
+}
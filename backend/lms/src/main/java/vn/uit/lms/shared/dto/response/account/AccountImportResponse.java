@@ -0,0 +1,33 @@
+package vn.uit.lms.shared.dto.response.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountImportResponse {
+
+    private int total;
+    private int imported;
+    private int failed;
+    private boolean errorsTruncated;    // more rows failed than are listed in errors
+    private long durationMs;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+        private long line;
+        private String username;
+        private String email;
+        private String message;
+    }
+}
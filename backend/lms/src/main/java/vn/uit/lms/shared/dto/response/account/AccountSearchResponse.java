@@ -0,0 +1,25 @@
+package vn.uit.lms.shared.dto.response.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.Role;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountSearchResponse {
+
+    private Long accountId;
+    private String username;
+    private String email;
+    private Role role;
+    private AccountStatus status;
+    private String fullName;
+    private String code;        // studentCode or teacherCode
+    private double score;       // word similarity in [0, 1]
+
+}
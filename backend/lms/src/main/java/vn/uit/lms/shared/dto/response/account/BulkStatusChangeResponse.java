@@ -0,0 +1,35 @@
+package vn.uit.lms.shared.dto.response.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.uit.lms.shared.constant.AccountActionType;
+import vn.uit.lms.shared.constant.AccountStatus;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusChangeResponse {
+
+    private AccountStatus status;
+    private int requested;
+    private int changed;
+    private int failed;
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private Long accountId;
+        private boolean success;
+        private AccountStatus oldStatus;
+        private AccountActionType actionType;
+        private String message;     // reason the change was refused, null on success
+    }
+}
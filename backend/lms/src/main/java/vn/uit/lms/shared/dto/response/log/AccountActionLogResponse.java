@@ -1,13 +1,17 @@
 package vn.uit.lms.shared.dto.response.log;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import vn.uit.lms.shared.constant.AccountActionType;
 
 import java.time.Instant;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class AccountActionLogResponse {
     private Long id;
     private AccountActionType actionType;
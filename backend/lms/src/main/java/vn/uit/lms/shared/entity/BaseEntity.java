@@ -12,8 +12,9 @@ import java.time.Instant;
 @MappedSuperclass
 public abstract class BaseEntity {
 
+    // One <table>_seq per entity, allocated in blocks of 50 (see HibernateConfiguration)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @CreationTimestamp
@@ -0,0 +1,11 @@
+package vn.uit.lms.shared.exception;
+
+/**
+ * Thrown when a filter or sort expression is refused by the query guard
+ * (non-allowlisted field, unindexed wildcard match or excessive estimated cost).
+ */
+public class QueryRejectedException extends RuntimeException {
+    public QueryRejectedException(String message) {
+        super(message);
+    }
+}
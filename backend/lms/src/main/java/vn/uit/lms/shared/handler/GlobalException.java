@@ -48,6 +48,7 @@ public class GlobalException {
             UploadFileException.class,
             InvalidStatusException.class,
             InvalidRequestException.class,
+            QueryRejectedException.class,
     })
     public ResponseEntity<ApiResponse<Object>> handleBusinessExceptions(Exception ex) {
         log.warn("Business exception: {}", ex.getMessage());
@@ -0,0 +1,20 @@
+package vn.uit.lms.shared.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Serialization of one profile through its role's {@link com.fasterxml.jackson.annotation.JsonView}.
+ */
+@Name("vn.uit.lms.JsonView")
+@Label("JSON View")
+@Category({"LMS", "Web"})
+@StackTrace(false)
+public class JsonViewEvent extends Event {
+
+    @Label("Role")
+    public String role;
+}
@@ -0,0 +1,45 @@
+package vn.uit.lms.shared.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One login attempt, with the time spent in each phase so a slow login can be pinned on
+ * password hashing, the profile lookup, token signing or the session write.
+ */
+@Name("vn.uit.lms.Login")
+@Label("Login")
+@Category({"LMS", "Auth"})
+@Description("Login attempt broken down by phase")
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    @Label("Role")
+    public String role;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Authentication")
+    @Description("Credential check, including the password hash comparison")
+    @Timespan
+    public long authentication;
+
+    @Label("Profile Lookup")
+    @Timespan
+    public long profileLookup;
+
+    @Label("Access Token")
+    @Timespan
+    public long accessToken;
+
+    @Label("Session")
+    @Description("Refresh token creation and the session upsert")
+    @Timespan
+    public long session;
+}
@@ -0,0 +1,20 @@
+package vn.uit.lms.shared.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Rendering of one Thymeleaf mail template.
+ */
+@Name("vn.uit.lms.MailRender")
+@Label("Mail Render")
+@Category({"LMS", "Mail"})
+@StackTrace(false)
+public class MailRenderEvent extends Event {
+
+    @Label("Template")
+    public String template;
+}
@@ -0,0 +1,28 @@
+package vn.uit.lms.shared.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Delivery of one message to the SMTP server.
+ */
+@Name("vn.uit.lms.MailSend")
+@Label("Mail Send")
+@Category({"LMS", "Mail"})
+@StackTrace(false)
+public class MailSendEvent extends Event {
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("HTML")
+    public boolean html;
+
+    @Label("In Transaction")
+    @Description("Sent while a database transaction, and its connection, was held open")
+    public boolean inTransaction;
+}
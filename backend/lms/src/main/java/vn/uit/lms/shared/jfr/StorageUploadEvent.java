@@ -0,0 +1,26 @@
+package vn.uit.lms.shared.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Upload of one file to Cloudinary. The file is buffered in full on the heap first, so
+ * {@link #bytes} is also the allocation the upload costs.
+ */
+@Name("vn.uit.lms.StorageUpload")
+@Label("Storage Upload")
+@Category({"LMS", "Storage"})
+@StackTrace(false)
+public class StorageUploadEvent extends Event {
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Outcome")
+    public String outcome;
+}
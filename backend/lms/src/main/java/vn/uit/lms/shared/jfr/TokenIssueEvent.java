@@ -0,0 +1,23 @@
+package vn.uit.lms.shared.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Signing of one access or refresh token.
+ */
+@Name("vn.uit.lms.TokenIssue")
+@Label("Token Issue")
+@Category({"LMS", "Auth"})
+@StackTrace(false)
+public class TokenIssueEvent extends Event {
+
+    @Label("Token Type")
+    public String tokenType;
+
+    @Label("Role")
+    public String role;
+}
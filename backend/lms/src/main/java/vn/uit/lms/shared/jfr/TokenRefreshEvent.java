@@ -0,0 +1,23 @@
+package vn.uit.lms.shared.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One refresh token exchange, from the hash lookup to the rotated token pair.
+ */
+@Name("vn.uit.lms.TokenRefresh")
+@Label("Token Refresh")
+@Category({"LMS", "Auth"})
+@StackTrace(false)
+public class TokenRefreshEvent extends Event {
+
+    @Label("Role")
+    public String role;
+
+    @Label("Outcome")
+    public String outcome;
+}
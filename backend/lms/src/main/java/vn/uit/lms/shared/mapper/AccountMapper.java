@@ -8,6 +8,7 @@ import vn.uit.lms.core.entity.Teacher;
 import vn.uit.lms.core.repository.AccountRepository;
 import vn.uit.lms.core.repository.StudentRepository;
 import vn.uit.lms.core.repository.TeacherRepository;
+import vn.uit.lms.core.repository.projection.AccountSearchRow;
 import vn.uit.lms.shared.constant.AccountStatus;
 import vn.uit.lms.shared.constant.Role;
 import vn.uit.lms.shared.dto.request.RegisterRequest;
@@ -15,6 +16,7 @@ import vn.uit.lms.shared.dto.response.RegisterResponse;
 import vn.uit.lms.shared.dto.response.ResLoginDTO;
 import vn.uit.lms.shared.dto.response.account.AccountProfileResponse;
 import vn.uit.lms.shared.dto.response.account.AccountResponse;
+import vn.uit.lms.shared.dto.response.account.AccountSearchResponse;
 
 
 public class AccountMapper {
@@ -110,6 +112,19 @@ public class AccountMapper {
                 .build();
     }
 
+    public static AccountSearchResponse toSearchResponse(AccountSearchRow row) {
+        return AccountSearchResponse.builder()
+                .accountId(row.getAccountId())
+                .username(row.getUsername())
+                .email(row.getEmail())
+                .role(Role.valueOf(row.getRole()))
+                .status(AccountStatus.valueOf(row.getStatus()))
+                .fullName(row.getFullName())
+                .code(row.getCode())
+                .score(row.getScore() != null ? row.getScore() : 0)
+                .build();
+    }
+
 
 }
 
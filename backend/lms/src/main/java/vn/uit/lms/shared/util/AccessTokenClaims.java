@@ -0,0 +1,110 @@
+package vn.uit.lms.shared.util;
+
+import org.springframework.security.oauth2.core.ClaimAccessor;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.dto.response.ResLoginDTO;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Claim layout of access tokens, in both supported versions.
+ * <ul>
+ *     <li>v1 (no {@code v} claim): {@code sub} = email, nested {@code user} object
+ *     ({@code accountId, username, email, role}) and a fixed {@code permissions} list;</li>
+ *     <li>v2: {@code sub} = account id, {@code v} = 2, {@code em} = email, {@code r} = role,
+ *     {@code pid} = student/teacher profile id (absent for admins).</li>
+ * </ul>
+ * Readers accept both, so tokens issued before a switch of {@code jwt.access-token.claims-version}
+ * stay valid until they expire.
+ */
+public final class AccessTokenClaims {
+
+    public static final int LEGACY_VERSION = 1;
+    public static final int CURRENT_VERSION = 2;
+
+    public static final String ISSUER = "lms-system";
+
+    public static final String VERSION = "v";
+    public static final String EMAIL = "em";
+    public static final String ROLE = "r";
+    public static final String PROFILE_ID = "pid";
+
+    private static final String LEGACY_USER = "user";
+    private static final String LEGACY_PERMISSIONS = "permissions";
+
+    private AccessTokenClaims() {}
+
+    public static JwtClaimsSet compact(ResLoginDTO.UserInfo user, Long profileId, Instant issuedAt, Instant expiresAt) {
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .issuedAt(issuedAt)
+                .expiresAt(expiresAt)
+                .subject(String.valueOf(user.getId()))
+                .claim(VERSION, CURRENT_VERSION)
+                .claim(EMAIL, user.getEmail())
+                .claim(ROLE, user.getRole().name());
+        if (profileId != null) {
+            claims.claim(PROFILE_ID, profileId);
+        }
+        return claims.build();
+    }
+
+    public static JwtClaimsSet legacy(ResLoginDTO.UserInfo user, Instant issuedAt, Instant expiresAt) {
+        ResLoginDTO.UserInsideToken userInsideToken = ResLoginDTO.UserInsideToken.builder()
+                .accountId(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .build();
+        return JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .issuedAt(issuedAt)
+                .expiresAt(expiresAt)
+                .subject(user.getEmail())
+                .claim(LEGACY_USER, userInsideToken)
+                .claim(LEGACY_PERMISSIONS, List.of("ROLE_USER_CREATE", "ROLE_USER_UPDATE"))
+                .build();
+    }
+
+    public static int version(ClaimAccessor token) {
+        Object version = token.getClaims().get(VERSION);
+        return version instanceof Number n ? n.intValue() : LEGACY_VERSION;
+    }
+
+    /**
+     * Login of the token owner. Refresh tokens and v1 access tokens carry it in {@code sub}.
+     */
+    public static String email(ClaimAccessor token) {
+        return version(token) >= CURRENT_VERSION ? token.getClaimAsString(EMAIL) : token.getClaimAsString("sub");
+    }
+
+    public static Optional<Long> accountId(ClaimAccessor token) {
+        if (version(token) >= CURRENT_VERSION) {
+            return Optional.ofNullable(token.getClaimAsString("sub")).map(Long::valueOf);
+        }
+        return Optional.ofNullable(legacyUser(token).get("accountId"))
+                .filter(Number.class::isInstance)
+                .map(id -> ((Number) id).longValue());
+    }
+
+    public static Optional<Role> role(ClaimAccessor token) {
+        Object role = version(token) >= CURRENT_VERSION
+                ? token.getClaims().get(ROLE)
+                : legacyUser(token).get("role");
+        return role == null ? Optional.empty() : Optional.of(Role.valueOf(role.toString()));
+    }
+
+    public static Optional<Long> profileId(ClaimAccessor token) {
+        Object profileId = token.getClaims().get(PROFILE_ID);
+        return profileId instanceof Number n ? Optional.of(n.longValue()) : Optional.empty();
+    }
+
+    private static Map<?, ?> legacyUser(ClaimAccessor token) {
+        Object user = token.getClaims().get(LEGACY_USER);
+        return user instanceof Map<?, ?> map ? map : Map.of();
+    }
+}
@@ -0,0 +1,52 @@
+package vn.uit.lms.shared.util;
+
+import vn.uit.lms.shared.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes opaque keyset cursors made of a {@code (createdAt, id)} pair.
+ */
+public final class CursorCodec {
+
+    private static final char SEPARATOR = '|';
+
+    private CursorCodec() {}
+
+    /**
+     * Encodes the sort key of the last row of a page into an URL-safe token.
+     */
+    public static String encode(Instant createdAt, Long id) {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode(Instant, Long)}.
+     *
+     * @throws InvalidRequestException if the token is malformed
+     */
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep <= 0) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return new Cursor(Instant.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    public static class Cursor {
+        private final Instant createdAt;
+        private final Long id;
+        public Cursor(Instant createdAt, Long id) { this.createdAt = createdAt; this.id = id; }
+        public Instant getCreatedAt() { return createdAt; }
+        public Long getId() { return id; }
+    }
+}
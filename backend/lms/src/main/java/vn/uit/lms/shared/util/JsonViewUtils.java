@@ -1,60 +1,90 @@
 package vn.uit.lms.shared.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import vn.uit.lms.shared.constant.Role;
 import vn.uit.lms.shared.dto.ApiResponse;
 import vn.uit.lms.shared.dto.response.account.AccountProfileResponse;
+import vn.uit.lms.shared.jfr.JsonViewEvent;
 import vn.uit.lms.shared.view.Views;
 
+import java.io.IOException;
 import java.time.Instant;
-
-import static vn.uit.lms.shared.constant.Role.*;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
- * Utility for applying @JsonView dynamically at runtime.
+ * Applies role-based {@link com.fasterxml.jackson.annotation.JsonView}s to account profiles.
+ * <p>
+ * One {@link ObjectWriter} per role is prepared from the application's {@link ObjectMapper} at
+ * startup. The filtered profile is written straight into the response's generator while the
+ * surrounding {@link ApiResponse} is serialized, so the whole body takes a single pass.
+ * </p>
  */
-public final class JsonViewUtils {
-
-    private static final ObjectMapper mapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+@Component
+public class JsonViewUtils {
 
-    private JsonViewUtils() {
-        // prevent instantiation
-    }
+    private final Map<Role, ObjectWriter> profileWriters = new EnumMap<>(Role.class);
 
-    public static Object applyView(Object data, Class<?> view) {
-        if (data == null) return null;
-        try {
-            String json = mapper
-                    .writerWithView(view)
-                    .writeValueAsString(data);
-            return mapper.readValue(json, Object.class);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to apply JSON view: " + e.getMessage(), e);
+    public JsonViewUtils(ObjectMapper objectMapper) {
+        for (Role role : Role.values()) {
+            profileWriters.put(role, objectMapper
+                    .writerWithView(profileView(role))
+                    .forType(AccountProfileResponse.class)
+                    // the enclosing response is still being written; let the converter flush
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
         }
     }
 
-    public static ApiResponse<Object> formatAccountProfileResponse(AccountProfileResponse response) {
-        Class<?> view = switch (response.getRole()) {
-            case STUDENT -> Views.Student.class;
-            case TEACHER -> Views.Teacher.class;
-            case ADMIN -> Views.Admin.class;
-        };
-
-        // Use JsonViewUtils for clean filtering
-        Object filteredData = JsonViewUtils.applyView(response, view);
-
+    public ApiResponse<Object> formatAccountProfileResponse(AccountProfileResponse response) {
         ApiResponse<Object> res = new ApiResponse<>();
         res.setSuccess(true);
         res.setStatus(HttpStatus.OK.value());
         res.setCode("SUCCESS");
         res.setMessage("Request processed successfully");
-        res.setData(filteredData);
+        res.setData(new ViewValue(response.getRole(), profileWriters.get(response.getRole()), response));
         res.setTimestamp(Instant.now());
 
         return res;
     }
+
+    private static Class<?> profileView(Role role) {
+        return switch (role) {
+            case STUDENT -> Views.Student.class;
+            case TEACHER -> Views.Teacher.class;
+            case ADMIN -> Views.Admin.class;
+        };
+    }
+
+    /**
+     * A value rendered through a view-bound writer, inline in the enclosing document.
+     */
+    private record ViewValue(Role role, ObjectWriter writer, Object value) implements JsonSerializable {
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            JsonViewEvent event = new JsonViewEvent();
+            event.begin();
+            writer.writeValue(gen, value);
+            event.end();
+            if (event.shouldCommit()) {
+                event.role = role.name();
+                event.commit();
+            }
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen,
+                                      SerializerProvider serializers,
+                                      TypeSerializer typeSer) throws IOException {
+            serialize(gen, serializers);
+        }
+    }
 }
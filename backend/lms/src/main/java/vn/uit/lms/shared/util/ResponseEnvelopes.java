@@ -0,0 +1,218 @@
+package vn.uit.lms.shared.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import vn.uit.lms.shared.dto.ApiResponse;
+import vn.uit.lms.shared.util.annotation.ApiMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the success envelope that {@link FormatRestResponse} puts around controller results.
+ * <p>
+ * The envelope is a thin {@link JsonSerializable} holding the body: it writes the same JSON as
+ * {@link ApiResponse} (same field order, {@code data} omitted when null), but with field names,
+ * codes and messages pre-encoded once and the constant {@code meta} block emitted as raw bytes.
+ * Messages are resolved per handler method and status; every mapped handler is prepared when the
+ * application is ready, anything else on first use.
+ * </p>
+ */
+@Component
+public class ResponseEnvelopes {
+
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 399;
+
+    private static final SerializedString SUCCESS_FIELD = new SerializedString("success");
+    private static final SerializedString STATUS_FIELD = new SerializedString("status");
+    private static final SerializedString MESSAGE_FIELD = new SerializedString("message");
+    private static final SerializedString CODE_FIELD = new SerializedString("code");
+    private static final SerializedString DATA_FIELD = new SerializedString("data");
+    private static final SerializedString TIMESTAMP_FIELD = new SerializedString("timestamp");
+    private static final SerializedString META_FIELD = new SerializedString("meta");
+
+    private static final ApiResponse.Meta META = ApiResponse.Meta.builder()
+            .author("© 2025 Group 5 / VN.UIT.LMS")
+            .license("Proprietary API – All rights reserved")
+            .version("v1.0.0")
+            .build();
+
+    private static final SerializedString[] CODES = new SerializedString[MAX_STATUS - MIN_STATUS + 1];
+
+    static {
+        for (int status = MIN_STATUS; status <= MAX_STATUS; status++) {
+            CODES[status - MIN_STATUS] = new SerializedString(resolveCode(status));
+        }
+    }
+
+    private final SerializedString metaJson;
+    private final SerializedString[] defaultMessages;
+    private final ConcurrentHashMap<Method, SerializedString[]> messagesByMethod = new ConcurrentHashMap<>();
+
+    public ResponseEnvelopes(ObjectMapper objectMapper) throws JsonProcessingException {
+        this.metaJson = new SerializedString(objectMapper.writeValueAsString(META));
+        this.defaultMessages = prepare(null);
+    }
+
+    /**
+     * Precomputes the messages of every mapped handler method.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareHandlers(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values()
+                .forEach(mapping -> mapping.getHandlerMethods().values()
+                        .forEach(handler -> messages(handler.getMethod())));
+    }
+
+    /**
+     * @param status a success status, below 400
+     * @param method the handler method, whose {@link ApiMessage} completes the message
+     */
+    public Object wrap(Object body, int status, Method method) {
+        if (status < MIN_STATUS || status > MAX_STATUS) {
+            throw new IllegalArgumentException("Not a success status: " + status);
+        }
+        int index = status - MIN_STATUS;
+        SerializedString[] messages = method == null ? defaultMessages : messages(method);
+        SerializedString message = messages[index];
+        if (message == null) {
+            // Statuses outside HttpStatus are rare enough to build on demand; races are benign
+            message = new SerializedString(message(status, annotationValue(method)));
+            messages[index] = message;
+        }
+        return new Envelope(status, CODES[index], message, body, metaJson);
+    }
+
+    private SerializedString[] messages(Method method) {
+        SerializedString[] messages = messagesByMethod.get(method);
+        if (messages == null) {
+            String apiMessage = annotationValue(method);
+            messages = apiMessage == null
+                    ? defaultMessages
+                    : messagesByMethod.computeIfAbsent(method, m -> prepare(apiMessage));
+        }
+        return messages;
+    }
+
+    private static SerializedString[] prepare(String apiMessage) {
+        SerializedString[] messages = new SerializedString[MAX_STATUS - MIN_STATUS + 1];
+        for (HttpStatus httpStatus : HttpStatus.values()) {
+            int status = httpStatus.value();
+            if (status >= MIN_STATUS && status <= MAX_STATUS) {
+                messages[status - MIN_STATUS] = new SerializedString(message(status, apiMessage));
+            }
+        }
+        return messages;
+    }
+
+    private static String annotationValue(Method method) {
+        ApiMessage apiMessage = method == null ? null : method.getAnnotation(ApiMessage.class);
+        return apiMessage != null ? apiMessage.value() : null;
+    }
+
+    private static String message(int status, String apiMessage) {
+        return resolveMessage(status) + ": " + (apiMessage != null ? apiMessage : "");
+    }
+
+    /**
+     * Maps HTTP status codes to standard response code strings.
+     */
+    private static String resolveCode(int status) {
+        HttpStatus httpStatus = HttpStatus.resolve(status);
+        if (httpStatus == null) {
+            return "UNKNOWN";
+        }
+
+        return switch (httpStatus) {
+            case OK -> "SUCCESS";
+            case CREATED -> "CREATED";
+            case NO_CONTENT -> "NO_CONTENT";
+            case BAD_REQUEST -> "BAD_REQUEST";
+            case UNAUTHORIZED -> "UNAUTHORIZED";
+            case FORBIDDEN -> "FORBIDDEN";
+            case NOT_FOUND -> "NOT_FOUND";
+            case CONFLICT -> "CONFLICT";
+            case INTERNAL_SERVER_ERROR -> "INTERNAL_ERROR";
+            case SERVICE_UNAVAILABLE -> "SERVICE_UNAVAILABLE";
+            default -> httpStatus.name();
+        };
+    }
+
+    /**
+     * Maps HTTP status codes to readable messages.
+     */
+    private static String resolveMessage(int status) {
+        HttpStatus httpStatus = HttpStatus.resolve(status);
+        if (httpStatus == null) {
+            return "Unknown status";
+        }
+
+        return switch (httpStatus) {
+            case OK -> "Request processed successfully";
+            case CREATED -> "Resource created successfully";
+            case NO_CONTENT -> "No content";
+            case BAD_REQUEST -> "Invalid request parameters";
+            case UNAUTHORIZED -> "Authentication required";
+            case FORBIDDEN -> "Access denied";
+            case NOT_FOUND -> "Resource not found";
+            case CONFLICT -> "Conflict detected";
+            case INTERNAL_SERVER_ERROR -> "Internal server error";
+            case SERVICE_UNAVAILABLE -> "Service temporarily unavailable";
+            default -> httpStatus.getReasonPhrase();
+        };
+    }
+
+    /**
+     * Writes {@code {"success":true,"status":..,"message":..,"code":..,"data":..,"timestamp":..,"meta":{..}}}
+     * with {@code data} serialized in place by the caller's provider.
+     */
+    private record Envelope(int status,
+                            SerializableString code,
+                            SerializableString message,
+                            Object data,
+                            SerializableString metaJson) implements JsonSerializable {
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(SUCCESS_FIELD);
+            gen.writeBoolean(true);
+            gen.writeFieldName(STATUS_FIELD);
+            gen.writeNumber(status);
+            gen.writeFieldName(MESSAGE_FIELD);
+            gen.writeString(message);
+            gen.writeFieldName(CODE_FIELD);
+            gen.writeString(code);
+            if (data != null) {
+                gen.writeFieldName(DATA_FIELD);
+                serializers.defaultSerializeValue(data, gen);
+            }
+            gen.writeFieldName(TIMESTAMP_FIELD);
+            serializers.defaultSerializeValue(Instant.now(), gen);
+            gen.writeFieldName(META_FIELD);
+            gen.writeRawValue(metaJson);
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen,
+                                      SerializerProvider serializers,
+                                      TypeSerializer typeSer) throws IOException {
+            serialize(gen, serializers);
+        }
+    }
+}
@@ -2,10 +2,9 @@ package vn.uit.lms.shared.util;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Stream;
 
 import lombok.Getter;
@@ -16,10 +15,11 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.ClaimAccessor;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.stereotype.Service;
+import vn.uit.lms.config.jwt.JwtKeyRing;
 import vn.uit.lms.shared.dto.response.ResLoginDTO;
+import vn.uit.lms.shared.jfr.TokenIssueEvent;
 
 /**
  * Utility class for Spring Security.
@@ -27,54 +27,50 @@ import vn.uit.lms.shared.dto.response.ResLoginDTO;
 @Service
 public final class SecurityUtils {
 
-    public static final MacAlgorithm JWT_ALGORITHM = MacAlgorithm.HS256;
-
     public static final String AUTHORITIES_CLAIM = "auth";
 
-    public static final String USER_ID_CLAIM = "userId";
-
     private final JwtEncoder jwtEncoder;
+    private final JwtKeyRing jwtKeyRing;
 
     @Getter
-    @Value("${jwt.access-token.expiration}")
-    private long accessTokenExpiration;
+    private final long accessTokenExpiration;
 
     @Getter
-    @Value("${jwt.refresh-token.expiration}")
-    private long refreshTokenExpiration;
+    private final long refreshTokenExpiration;
 
-    private SecurityUtils(JwtEncoder jwtEncoder) {
+    /**
+     * Claim layout of newly issued access tokens. Keep at 1 until every node reads version 2.
+     */
+    private final int accessTokenClaimsVersion;
+
+    public SecurityUtils(JwtEncoder jwtEncoder,
+                         JwtKeyRing jwtKeyRing,
+                         @Value("${jwt.access-token.expiration}") long accessTokenExpiration,
+                         @Value("${jwt.refresh-token.expiration}") long refreshTokenExpiration,
+                         @Value("${jwt.access-token.claims-version:1}") int accessTokenClaimsVersion) {
         this.jwtEncoder = jwtEncoder;
+        this.jwtKeyRing = jwtKeyRing;
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.refreshTokenExpiration = refreshTokenExpiration;
+        this.accessTokenClaimsVersion = accessTokenClaimsVersion;
     }
 
 
-    public String createAccessToken(String email, ResLoginDTO dto) {
-
-        ResLoginDTO.UserInsideToken userInsideToken = ResLoginDTO.UserInsideToken.builder()
-                .accountId(dto.getUser().getId())
-                .username(dto.getUser().getUsername())
-                .email(dto.getUser().getEmail())
-                .role(dto.getUser().getRole())
-                .build();
+    /**
+     * Signs an access token in the claim layout selected by {@code jwt.access-token.claims-version}
+     * (see {@link AccessTokenClaims}).
+     *
+     * @param profileId student/teacher profile id, {@code null} for admins
+     */
+    public String createAccessToken(ResLoginDTO.UserInfo user, Long profileId) {
         Instant now = Instant.now();
         Instant validity = now.plus(this.accessTokenExpiration, ChronoUnit.SECONDS);
 
-        List<String> listAuthority = new ArrayList<String>();
-        listAuthority.add("ROLE_USER_CREATE");
-        listAuthority.add("ROLE_USER_UPDATE");
-        // @formatter:off
-        JwtClaimsSet claims = JwtClaimsSet.builder()
-                .issuer("lms-system")
-                .issuedAt(now)
-                .expiresAt(validity)
-                .subject(email)
-                .claim("user", userInsideToken)
-                .claim("permissions", listAuthority)
-                .build();
+        JwtClaimsSet claims = accessTokenClaimsVersion >= AccessTokenClaims.CURRENT_VERSION
+                ? AccessTokenClaims.compact(user, profileId, now, validity)
+                : AccessTokenClaims.legacy(user, now, validity);
 
-        JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
-        return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader,
-                claims)).getTokenValue();
+        return sign(claims, "access", user.getRole() == null ? null : user.getRole().name());
     }
 
     public String createRefreshToken(String email) {
@@ -82,16 +78,29 @@ public final class SecurityUtils {
         Instant validity = now.plus(this.refreshTokenExpiration, ChronoUnit.SECONDS);
 
         JwtClaimsSet claims = JwtClaimsSet.builder()
-                .issuer("lms-system")
+                .issuer(AccessTokenClaims.ISSUER)
                 .issuedAt(now)
                 .expiresAt(validity)
                 .subject(email)
+                .id(UUID.randomUUID().toString())
                 .claim("token_type", "refresh")
                 .build();
 
-        return jwtEncoder.encode(
-                JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims)
-        ).getTokenValue();
+        return sign(claims, "refresh", null);
+    }
+
+    private String sign(JwtClaimsSet claims, String tokenType, String role) {
+        TokenIssueEvent event = new TokenIssueEvent();
+        event.begin();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(jwtKeyRing.signingHeader(), claims))
+                .getTokenValue();
+        event.end();
+        if (event.shouldCommit()) {
+            event.tokenType = tokenType;
+            event.role = role;
+            event.commit();
+        }
+        return token;
     }
 
 
@@ -111,7 +120,7 @@ public final class SecurityUtils {
         } else if (authentication.getPrincipal() instanceof UserDetails springSecurityUser) {
             return springSecurityUser.getUsername();
         } else if (authentication.getPrincipal() instanceof Jwt jwt) {
-            return jwt.getSubject();
+            return AccessTokenClaims.email(jwt);
         } else if (authentication.getPrincipal() instanceof String s) {
             return s;
         }
@@ -139,8 +148,19 @@ public final class SecurityUtils {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         return Optional.ofNullable(securityContext.getAuthentication())
                 .filter(authentication -> authentication.getPrincipal() instanceof ClaimAccessor)
-                .map(authentication -> (ClaimAccessor) authentication.getPrincipal())
-                .map(principal -> principal.getClaim(USER_ID_CLAIM));
+                .flatMap(authentication -> AccessTokenClaims.accountId((ClaimAccessor) authentication.getPrincipal()));
+    }
+
+    /**
+     * Get the student/teacher profile id of the current user.
+     *
+     * @return the profile id, empty for admins and tokens issued before claims version 2.
+     */
+    public static Optional<Long> getCurrentProfileId() {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        return Optional.ofNullable(securityContext.getAuthentication())
+                .filter(authentication -> authentication.getPrincipal() instanceof ClaimAccessor)
+                .flatMap(authentication -> AccessTokenClaims.profileId((ClaimAccessor) authentication.getPrincipal()));
     }
 
     /**
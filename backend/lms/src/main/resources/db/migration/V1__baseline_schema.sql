@@ -0,0 +1,116 @@
+-- Baseline schema, matching what Hibernate generated from the entities before migrations
+-- were introduced. Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE accounts (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_by       VARCHAR(255),
+    updated_by       VARCHAR(255),
+    deleted_at       TIMESTAMP(6) WITH TIME ZONE,
+    username         VARCHAR(150) NOT NULL UNIQUE,
+    email            VARCHAR(255) NOT NULL UNIQUE,
+    password_hash    VARCHAR(255) NOT NULL,
+    role             VARCHAR(20)  NOT NULL,
+    status           VARCHAR(20)  NOT NULL,
+    avatar_url       VARCHAR(512),
+    avatar_public_id VARCHAR(255),
+    last_login_at    TIMESTAMP(6) WITH TIME ZONE,
+    lang_key         VARCHAR(10)
+);
+
+CREATE INDEX idx_accounts_created_at_id ON accounts (created_at DESC, id DESC);
+
+CREATE TABLE students (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_by   VARCHAR(255),
+    updated_by   VARCHAR(255),
+    deleted_at   TIMESTAMP(6) WITH TIME ZONE,
+    full_name    VARCHAR(255) NOT NULL,
+    birth_date   DATE,
+    gender       VARCHAR(255),
+    phone        VARCHAR(30),
+    bio          TEXT,
+    account_id   BIGINT NOT NULL UNIQUE REFERENCES accounts (id),
+    student_code VARCHAR(50) UNIQUE
+);
+
+CREATE TABLE teachers (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_by    VARCHAR(255),
+    updated_by    VARCHAR(255),
+    deleted_at    TIMESTAMP(6) WITH TIME ZONE,
+    full_name     VARCHAR(255) NOT NULL,
+    birth_date    DATE,
+    gender        VARCHAR(255),
+    phone         VARCHAR(30),
+    bio           TEXT,
+    account_id    BIGINT NOT NULL UNIQUE REFERENCES accounts (id),
+    teacher_code  VARCHAR(50) UNIQUE,
+    specialty     VARCHAR(255),
+    degree        VARCHAR(128),
+    approved      BOOLEAN NOT NULL,
+    approved_by   BIGINT,
+    approved_at   TIMESTAMP(6) WITH TIME ZONE,
+    reject_reason TEXT
+);
+
+CREATE TABLE account_action_log (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_by   VARCHAR(255),
+    updated_by   VARCHAR(255),
+    deleted_at   TIMESTAMP(6) WITH TIME ZONE,
+    account_id   BIGINT NOT NULL REFERENCES accounts (id),
+    action_type  VARCHAR(32) NOT NULL,
+    reason       TEXT,
+    performed_by BIGINT NOT NULL REFERENCES accounts (id),
+    ip_address   VARCHAR(45),
+    old_status   VARCHAR(64),
+    new_status   VARCHAR(64)
+);
+
+CREATE TABLE email_verification (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    deleted_at TIMESTAMP(6) WITH TIME ZONE,
+    account_id BIGINT NOT NULL REFERENCES accounts (id),
+    token_hash VARCHAR(255) NOT NULL,
+    token_type VARCHAR(30) NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    is_used    BOOLEAN NOT NULL
+);
+
+CREATE TABLE refresh_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_by  VARCHAR(255),
+    updated_by  VARCHAR(255),
+    deleted_at  TIMESTAMP(6) WITH TIME ZONE,
+    account_id  BIGINT NOT NULL REFERENCES accounts (id),
+    token_hash  VARCHAR(512) NOT NULL,
+    device_info VARCHAR(255),
+    ip_address  VARCHAR(45),
+    expires_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked     BOOLEAN NOT NULL
+);
+
+CREATE TABLE test_entity (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    deleted_at TIMESTAMP(6) WITH TIME ZONE,
+    name       VARCHAR(255) NOT NULL,
+    age        INTEGER NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Lower-cased copies of username/email so case-insensitive filters can use a plain btree
+-- (text_pattern_ops also serves anchored LIKE 'prefix%' matches).
+
+ALTER TABLE accounts
+    ADD COLUMN username_lower VARCHAR(150) GENERATED ALWAYS AS (lower(username)) STORED,
+    ADD COLUMN email_lower    VARCHAR(255) GENERATED ALWAYS AS (lower(email)) STORED;
+
+CREATE INDEX idx_accounts_username_lower ON accounts (username_lower text_pattern_ops);
+CREATE INDEX idx_accounts_email_lower ON accounts (email_lower text_pattern_ops);
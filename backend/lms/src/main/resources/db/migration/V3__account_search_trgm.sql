@@ -0,0 +1,75 @@
+-- Admin people search: one folded search document per account, indexed with pg_trgm.
+-- The document is kept up to date by triggers, so every write path (registration,
+-- verification, profile updates, bulk imports) is covered without application code.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Lower-cases and strips Vietnamese diacritics ("Nguyễn Văn Đức" -> "nguyen van duc").
+-- Combining marks are removed first so decomposed (NFD) input folds the same as NFC.
+CREATE OR REPLACE FUNCTION lms_fold(input TEXT) RETURNS TEXT AS $$
+    SELECT lower(translate(
+        regexp_replace(input, '[\u0300-\u036f]', '', 'g'),
+        'àÀáÁạẠảẢãÃâÂầẦấẤậẬẩẨẫẪăĂằẰắẮặẶẳẲẵẴèÈéÉẹẸẻẺẽẼêÊềỀếẾệỆểỂễỄìÌíÍịỊỉỈĩĨòÒóÓọỌỏỎõÕôÔồỒốỐộỘổỔỗỖơƠờỜớỚợỢởỞỡỠùÙúÚụỤủỦũŨưƯừỪứỨựỰửỬữỮỳỲýÝỵỴỷỶỹỸđĐ',
+        'aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaeeeeeeeeeeeeeeeeeeeeeeiiiiiiiiiioooooooooooooooooooooooooooooooooouuuuuuuuuuuuuuuuuuuuuuyyyyyyyyyydd'
+    ));
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+CREATE TABLE account_search (
+    account_id BIGINT PRIMARY KEY REFERENCES accounts (id) ON DELETE CASCADE,
+    document   TEXT NOT NULL
+);
+
+CREATE INDEX idx_account_search_document_trgm ON account_search USING gin (document gin_trgm_ops);
+
+CREATE OR REPLACE FUNCTION lms_refresh_account_search(p_account_id BIGINT) RETURNS void AS $$
+    INSERT INTO account_search (account_id, document)
+    SELECT a.id,
+           lms_fold(concat_ws(' ', a.username, a.email,
+                              s.full_name, s.student_code,
+                              t.full_name, t.teacher_code))
+    FROM accounts a
+             LEFT JOIN students s ON s.account_id = a.id
+             LEFT JOIN teachers t ON t.account_id = a.id
+    WHERE a.id = p_account_id
+    ON CONFLICT (account_id) DO UPDATE SET document = EXCLUDED.document;
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION lms_account_search_on_account() RETURNS trigger AS $$
+BEGIN
+    PERFORM lms_refresh_account_search(NEW.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION lms_account_search_on_profile() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM lms_refresh_account_search(OLD.account_id);
+    ELSE
+        PERFORM lms_refresh_account_search(NEW.account_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_account_search_accounts
+    AFTER INSERT OR UPDATE OF username, email ON accounts
+    FOR EACH ROW EXECUTE FUNCTION lms_account_search_on_account();
+
+CREATE TRIGGER trg_account_search_students
+    AFTER INSERT OR DELETE OR UPDATE OF full_name, student_code ON students
+    FOR EACH ROW EXECUTE FUNCTION lms_account_search_on_profile();
+
+CREATE TRIGGER trg_account_search_teachers
+    AFTER INSERT OR DELETE OR UPDATE OF full_name, teacher_code ON teachers
+    FOR EACH ROW EXECUTE FUNCTION lms_account_search_on_profile();
+
+-- Backfill existing accounts
+INSERT INTO account_search (account_id, document)
+SELECT a.id,
+       lms_fold(concat_ws(' ', a.username, a.email,
+                          s.full_name, s.student_code,
+                          t.full_name, t.teacher_code))
+FROM accounts a
+         LEFT JOIN students s ON s.account_id = a.id
+         LEFT JOIN teachers t ON t.account_id = a.id;
@@ -0,0 +1,3 @@
+-- Serves the per-account audit log listing ordered by (created_at, id) newest first
+CREATE INDEX IF NOT EXISTS idx_account_action_log_account_created
+    ON account_action_log (account_id, created_at DESC, id DESC);
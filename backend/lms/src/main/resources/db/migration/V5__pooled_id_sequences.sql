@@ -0,0 +1,19 @@
+-- Replace IDENTITY ids with one sequence per table (INCREMENT BY 50) so Hibernate can hand out
+-- ids from memory with the pooled-lo optimizer and batch inserts. Each nextval reserves the block
+-- [value, value + 49] for Hibernate; plain SQL inserts keep working through the column default
+-- and only ever use the value itself, so the two never overlap.
+
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['accounts', 'students', 'teachers', 'account_action_log',
+                             'email_verification', 'refresh_tokens', 'test_entity']
+    LOOP
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50 OWNED BY %I.id', t || '_seq', t);
+        EXECUTE format('SELECT setval(%L, COALESCE((SELECT max(id) FROM %I), 0) + 1, false)', t || '_seq', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, t || '_seq');
+    END LOOP;
+END
+$$;
@@ -0,0 +1,8 @@
+-- Per prefix (STU/TEA) and year counter for student/teacher codes. Each application node
+-- reserves a block of serials with one upsert and hands them out from memory.
+CREATE TABLE code_blocks (
+    prefix     VARCHAR(8) NOT NULL,
+    year       INTEGER    NOT NULL,
+    next_value BIGINT     NOT NULL,
+    PRIMARY KEY (prefix, year)
+);
@@ -0,0 +1,11 @@
+-- At most one token per account and token type: keep the newest row of each pair.
+DELETE FROM email_verification e
+USING email_verification newer
+WHERE newer.account_id = e.account_id
+  AND newer.token_type = e.token_type
+  AND (newer.created_at, newer.id) > (e.created_at, e.id);
+
+ALTER TABLE email_verification
+    ADD CONSTRAINT uq_email_verification_account_type UNIQUE (account_id, token_type);
+
+CREATE INDEX IF NOT EXISTS idx_email_verification_token_hash ON email_verification (token_hash);
@@ -0,0 +1,13 @@
+-- Responses remembered per Idempotency-Key when app.idempotency.store=JDBC.
+-- A row with a NULL status_code is a claim by a request still in flight.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(64)  NOT NULL PRIMARY KEY,
+    fingerprint     VARCHAR(64),
+    status_code     INTEGER,
+    content_type    VARCHAR(255),
+    body            BYTEA,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,39 @@
+-- One refresh_tokens row per (account, device): logins from a known device rotate that row
+-- instead of inserting a new one. device_id is the SHA-256 hex fingerprint computed by
+-- RefreshTokenService ("d:" + client device id, or "i:" + device info + "|" + IP).
+
+ALTER TABLE refresh_tokens
+    ADD COLUMN device_id           VARCHAR(64),
+    ADD COLUMN previous_token_hash VARCHAR(512),
+    ADD COLUMN last_used_at        TIMESTAMP(6) WITH TIME ZONE;
+
+-- Dead rows carry no session
+DELETE FROM refresh_tokens WHERE revoked OR expires_at < now();
+
+UPDATE refresh_tokens
+SET device_id    = encode(sha256(convert_to(
+                       'i:' || coalesce(device_info, 'Unknown device') || '|' || coalesce(ip_address, ''),
+                       'UTF8')), 'hex'),
+    last_used_at = coalesce(updated_at, created_at);
+
+-- Keep the newest live row per device
+DELETE FROM refresh_tokens r
+USING refresh_tokens newer
+WHERE newer.account_id = r.account_id
+  AND newer.device_id = r.device_id
+  AND newer.id > r.id;
+
+-- Refresh tokens issued in the same second used to be identical JWTs (no jti)
+DELETE FROM refresh_tokens r
+USING refresh_tokens newer
+WHERE newer.token_hash = r.token_hash
+  AND newer.id > r.id;
+
+ALTER TABLE refresh_tokens
+    ALTER COLUMN device_id SET NOT NULL,
+    ALTER COLUMN last_used_at SET NOT NULL,
+    ADD CONSTRAINT uq_refresh_tokens_account_device UNIQUE (account_id, device_id);
+
+CREATE UNIQUE INDEX idx_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+CREATE INDEX idx_refresh_tokens_previous_token_hash ON refresh_tokens (previous_token_hash)
+    WHERE previous_token_hash IS NOT NULL;
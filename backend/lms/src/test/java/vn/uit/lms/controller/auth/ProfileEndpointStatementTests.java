@@ -0,0 +1,92 @@
+package vn.uit.lms.controller.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import vn.uit.lms.core.entity.Account;
+import vn.uit.lms.core.entity.Student;
+import vn.uit.lms.core.repository.AccountRepository;
+import vn.uit.lms.core.repository.StudentRepository;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.util.AccessTokenClaims;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static vn.uit.lms.support.SqlStatementAssertions.assertMaxStatements;
+
+/**
+ * Statement budgets of the current-user endpoints: one account and one profile lookup on a cold
+ * cache, nothing once cached or when the client's ETag still matches.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ProfileEndpointStatementTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private JwtRequestPostProcessor token;
+
+    @BeforeEach
+    void setUp() {
+        Account account = accountRepository.save(Account.builder()
+                .username("statement_budget_student")
+                .email("statement_budget_student@example.com")
+                .passwordHash("{noop}unused")
+                .role(Role.STUDENT)
+                .status(AccountStatus.ACTIVE)
+                .langKey("en")
+                .build());
+        Student student = new Student();
+        student.setAccount(account);
+        student.setFullName("Statement Budget");
+        student.setStudentCode("SB" + account.getId());
+        studentRepository.saveAndFlush(student);
+
+        token = jwt()
+                .jwt(jwt -> jwt
+                        .subject(String.valueOf(account.getId()))
+                        .claim(AccessTokenClaims.VERSION, AccessTokenClaims.CURRENT_VERSION)
+                        .claim(AccessTokenClaims.EMAIL, account.getEmail())
+                        .claim(AccessTokenClaims.ROLE, Role.STUDENT.name())
+                        .claim(AccessTokenClaims.PROFILE_ID, student.getId()))
+                .authorities(new SimpleGrantedAuthority("ROLE_STUDENT"));
+    }
+
+    @Test
+    void authMeIsServedFromTheProfileCache() throws Throwable {
+        String etag = assertMaxStatements(2, () -> mockMvc.perform(get("/api/v1/auth/me").with(token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag"));
+
+        assertMaxStatements(0, () -> mockMvc.perform(get("/api/v1/auth/me").with(token))
+                .andExpect(status().isOk()));
+        assertMaxStatements(0, () -> mockMvc.perform(get("/api/v1/auth/me").with(token).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag)));
+    }
+
+    @Test
+    void accountsMeIsServedFromTheProfileCache() throws Throwable {
+        assertMaxStatements(2, () -> mockMvc.perform(get("/api/v1/accounts/me").with(token))
+                .andExpect(status().isOk()));
+        assertMaxStatements(0, () -> mockMvc.perform(get("/api/v1/accounts/me").with(token))
+                .andExpect(status().isOk()));
+    }
+}
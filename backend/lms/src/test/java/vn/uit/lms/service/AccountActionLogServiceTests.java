@@ -0,0 +1,116 @@
+package vn.uit.lms.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import vn.uit.lms.core.entity.Account;
+import vn.uit.lms.core.entity.AccountActionLog;
+import vn.uit.lms.core.repository.AccountActionLogRepository;
+import vn.uit.lms.core.repository.AccountRepository;
+import vn.uit.lms.shared.constant.AccountActionType;
+import vn.uit.lms.shared.constant.Role;
+import vn.uit.lms.shared.dto.CursorPageResponse;
+import vn.uit.lms.shared.dto.response.log.AccountActionLogResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static vn.uit.lms.support.AccountFixtures.account;
+
+/**
+ * Guards the audit log listing against N+1 regressions by counting JDBC statements per page.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class AccountActionLogServiceTests {
+
+    private static final int LOG_COUNT = 25;
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private AccountActionLogService accountActionLogService;
+
+    @Autowired
+    private AccountActionLogRepository accountActionLogRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long targetId;
+
+    @BeforeEach
+    void setUp() {
+        Account admin = accountRepository.save(account("log_test_admin", Role.ADMIN));
+        Account target = accountRepository.save(account("log_test_target", Role.STUDENT));
+        targetId = target.getId();
+
+        for (int i = 0; i < LOG_COUNT; i++) {
+            accountActionLogRepository.save(AccountActionLog.builder()
+                    .targetAccount(target)
+                    .performedBy(admin)
+                    .actionType(i % 2 == 0 ? AccountActionType.SUSPEND : AccountActionType.UNLOCK)
+                    .reason("reason " + i)
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void cursorPagesIssueOneStatementEach() {
+        CursorPageResponse<AccountActionLogResponse> first =
+                accountActionLogService.getLogsForAccountByCursor(targetId, null, null, PAGE_SIZE);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(PAGE_SIZE, first.getItems().size());
+        assertTrue(first.isHasNext());
+        assertEquals("log_test_admin", first.getItems().get(0).getPerformedByUsername());
+
+        statistics.clear();
+        CursorPageResponse<AccountActionLogResponse> second =
+                accountActionLogService.getLogsForAccountByCursor(targetId, null, first.getNextCursor(), PAGE_SIZE);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(PAGE_SIZE, second.getItems().size());
+
+        statistics.clear();
+        CursorPageResponse<AccountActionLogResponse> last =
+                accountActionLogService.getLogsForAccountByCursor(targetId, null, second.getNextCursor(), PAGE_SIZE);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(LOG_COUNT - 2 * PAGE_SIZE, last.getItems().size());
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void offsetPageIssuesSelectAndCountOnly() {
+        Page<AccountActionLogResponse> page =
+                accountActionLogService.getLogsForAccount(targetId, AccountActionType.SUSPEND, PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals((LOG_COUNT + 1) / 2, page.getTotalElements());
+    }
+}
@@ -0,0 +1,105 @@
+package vn.uit.lms.service.availability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.uit.lms.core.repository.AccountRepository;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.Role;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static vn.uit.lms.support.AccountFixtures.account;
+
+/**
+ * Which availability checks the Bloom filters answer and which fall through to the database.
+ */
+@SpringBootTest
+@Transactional
+class AccountAvailabilityServiceTests {
+
+    @Autowired
+    private AccountAvailabilityService accountAvailabilityService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.save(account("avail_taken", Role.STUDENT, AccountStatus.ACTIVE));
+        accountRepository.save(account("avail_pending", Role.STUDENT, AccountStatus.PENDING_EMAIL));
+        entityManager.flush();
+
+        // the scan joins the test transaction, so it sees the accounts above
+        accountAvailabilityService.rebuild();
+    }
+
+    @Test
+    void unknownValueIsAnsweredByTheFilter() {
+        double misses = checks("filter_miss");
+
+        assertTrue(accountAvailabilityService.isUsernameAvailable("avail_nobody"));
+        assertTrue(accountAvailabilityService.isEmailAvailable("avail_nobody@example.com"));
+
+        assertEquals(misses + 2, checks("filter_miss"));
+    }
+
+    @Test
+    void takenValueIsConfirmedByTheDatabase() {
+        double taken = checks("db_taken");
+
+        assertFalse(accountAvailabilityService.isUsernameAvailable("  Avail_Taken "));
+        assertFalse(accountAvailabilityService.isEmailAvailable("AVAIL_TAKEN@example.com"));
+
+        assertEquals(taken + 2, checks("db_taken"));
+    }
+
+    @Test
+    void pendingAccountPassesTheFilterButIsReportedAvailable() {
+        double free = checks("db_free");
+
+        assertTrue(accountAvailabilityService.isUsernameAvailable("avail_pending"));
+
+        assertEquals(free + 1, checks("db_free"));
+    }
+
+    @Test
+    void recordedAccountReachesTheFilterOnlyAfterCommit() {
+        List<TransactionSynchronization> before = TransactionSynchronizationManager.getSynchronizations();
+        accountAvailabilityService.recordAccount("avail_new", "avail_new@example.com");
+        List<TransactionSynchronization> registered = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        registered.removeAll(before);
+        assertEquals(1, registered.size());
+
+        double misses = checks("filter_miss");
+        assertTrue(accountAvailabilityService.isUsernameAvailable("avail_new"));
+        assertEquals(misses + 1, checks("filter_miss"));
+
+        // the test transaction rolls back, so run the commit callback by hand
+        registered.get(0).afterCommit();
+
+        double free = checks("db_free");
+        assertTrue(accountAvailabilityService.isUsernameAvailable("avail_new"));
+        assertEquals(free + 1, checks("db_free"));
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("lms.availability.checks").tag("result", result).counter().count();
+    }
+}
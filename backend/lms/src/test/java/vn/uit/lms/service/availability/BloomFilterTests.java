@@ -0,0 +1,82 @@
+package vn.uit.lms.service.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+    private static final int VALUES = 20_000;
+
+    @Test
+    void addedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(VALUES, 0.01);
+        for (int i = 0; i < VALUES; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < VALUES; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"), "false negative for value " + i);
+        }
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() {
+        BloomFilter filter = new BloomFilter(VALUES, 0.01);
+        IntStream.range(0, VALUES).parallel().forEach(i -> filter.add("student" + i));
+
+        for (int i = 0; i < VALUES; i++) {
+            assertTrue(filter.mightContain("student" + i), "false negative for value " + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(VALUES, 0.01);
+        for (int i = 0; i < VALUES; i++) {
+            filter.add("taken" + i);
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("free" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "false positive rate " + rate);
+    }
+
+    @Test
+    void indexStaysInRangeForNegativeHashes() {
+        long bitCount = 1_000_003L;
+        for (long combined : new long[]{-1L, Long.MIN_VALUE, Integer.MIN_VALUE, -123_456_789L}) {
+            long index = BloomFilter.index(combined, bitCount);
+            assertTrue(index >= 0 && index < bitCount, "index " + index + " for " + combined);
+        }
+    }
+
+    @Test
+    void indexReachesBitsBeyondThirtyOneBits() {
+        long bitCount = 1L << 36;
+        assertEquals(1L << 35, BloomFilter.index(1L << 35, bitCount));
+        assertEquals(bitCount - 1, BloomFilter.index(bitCount - 1, bitCount));
+
+        SplittableRandom random = new SplittableRandom(42);
+        long above = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long index = BloomFilter.index(random.nextLong(), bitCount);
+            assertTrue(index >= 0 && index < bitCount);
+            if (index > Integer.MAX_VALUE) {
+                above++;
+            }
+        }
+        // uniform over 2^36 bits: almost all probes land above 2^31
+        assertTrue(above > 9_000, "only " + above + " probes above 2^31");
+    }
+}
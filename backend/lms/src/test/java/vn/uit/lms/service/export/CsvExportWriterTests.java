@@ -0,0 +1,49 @@
+package vn.uit.lms.service.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvExportWriterTests {
+
+    @Test
+    void plainFieldsAreWrittenUnquoted() throws IOException {
+        assertEquals("1,alice,alice@example.com,\r\n", write(1L, "alice", "alice@example.com", null));
+    }
+
+    @Test
+    void separatorsQuotesAndLineBreaksAreQuoted() throws IOException {
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\"\r\n", write("a,b", "say \"hi\"", "two\nlines"));
+    }
+
+    @Test
+    void formulaTriggersArePrefixed() throws IOException {
+        assertEquals("'+1,'-2,'@SUM(A1),'\tx,'=cmd|' /C calc'!A0\r\n",
+                write("+1", "-2", "@SUM(A1)", "\tx", "=cmd|' /C calc'!A0"));
+    }
+
+    @Test
+    void formulaPrefixIsKeptInsideQuotes() throws IOException {
+        assertEquals("\"'=1+2,3\"\r\n", write("=1+2,3"));
+        assertEquals("\"'\rcmd\"\r\n", write("\rcmd"));
+    }
+
+    @Test
+    void numbersAndTimestampsAreNotPrefixed() throws IOException {
+        Instant at = Instant.parse("2025-03-01T08:15:30Z");
+        assertEquals("-5,2025-03-01T08:15:30Z\r\n", write(-5L, Timestamp.from(at)));
+    }
+
+    private static String write(Object... values) throws IOException {
+        StringWriter out = new StringWriter();
+        CsvExportWriter writer = new CsvExportWriter(out);
+        writer.row(values);
+        writer.end();
+        return out.toString();
+    }
+}
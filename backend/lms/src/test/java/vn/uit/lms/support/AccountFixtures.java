@@ -0,0 +1,28 @@
+package vn.uit.lms.support;
+
+import vn.uit.lms.core.entity.Account;
+import vn.uit.lms.shared.constant.AccountStatus;
+import vn.uit.lms.shared.constant.Role;
+
+/**
+ * Unsaved accounts for repository and service tests; the email is derived from the username.
+ */
+public final class AccountFixtures {
+
+    private AccountFixtures() {}
+
+    public static Account account(String username, Role role) {
+        return account(username, role, AccountStatus.ACTIVE);
+    }
+
+    public static Account account(String username, Role role, AccountStatus status) {
+        return Account.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .passwordHash("{noop}unused")
+                .role(role)
+                .status(status)
+                .langKey("en")
+                .build();
+    }
+}
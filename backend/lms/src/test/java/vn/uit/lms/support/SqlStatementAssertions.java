@@ -0,0 +1,33 @@
+package vn.uit.lms.support;
+
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import vn.uit.lms.config.diagnostics.RequestDiagnostics;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Statement budgets for tests: fails when a block (typically a MockMvc call, which runs on the
+ * test thread) issues more JDBC statements than allowed.
+ * <pre>{@code
+ * assertMaxStatements(2, () -> mockMvc.perform(get("/api/v1/auth/me").with(jwt)).andExpect(status().isOk()));
+ * }</pre>
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {}
+
+    public static <T> T assertMaxStatements(long maxStatements, ThrowingSupplier<T> action) throws Throwable {
+        T result;
+        RequestDiagnostics.Scope scope = RequestDiagnostics.open();
+        try {
+            result = action.get();
+        } finally {
+            scope.close();
+        }
+        if (scope.statements() > maxStatements) {
+            fail("Expected at most " + maxStatements + " SQL statements but " + scope.statements()
+                    + " were executed (" + scope + ")");
+        }
+        return result;
+    }
+}